@@ -0,0 +1,63 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.game.BlastResolver;
+import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Position;
+import fr.ubx.poo.ubomb.go.decor.Bomb;
+import fr.ubx.poo.ubomb.go.decor.bonus.BombRangeModifier;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A bomb in the middle of the map whose rays cross every monster, and a row of bombs setting each other off
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExplosionBenchmark {
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"10", "100"})
+    public int monsters;
+
+    private MapLevel mapLevel;
+    private Game game;
+    private Bomb bomb;
+    private Bomb chain;
+
+    @Setup(Level.Trial)
+    public void setupMap() {
+        mapLevel = Fixtures.cross(size, monsters);
+    }
+
+    // Monsters die from the explosion, so every invocation gets a fresh game
+    @Setup(Level.Invocation)
+    public void setupGame() {
+        game = Fixtures.game(mapLevel);
+        // Right half of the first row, out of reach of the cross. Range 1, each bomb only reaches its neighbours
+        for (int x = size - 1; x > size / 2; x--) {
+            Position position = new Position(x, 0);
+            chain = new Bomb(game, position);
+            game.grid().set(position, chain);
+        }
+        Position center = new Position(size / 2, size / 2);
+        game.player().take(new BombRangeModifier(center, size / 2));
+        bomb = new Bomb(game, center);
+        game.blastRays(0); // Built once per level, not on each blast
+    }
+
+    @Benchmark
+    public List<BlastResolver.Ray> explode() {
+        bomb.explode();
+        return game.blasts().resolve();
+    }
+
+    @Benchmark
+    public List<BlastResolver.Ray> chainReaction() {
+        chain.explode();
+        return game.blasts().resolve();
+    }
+}
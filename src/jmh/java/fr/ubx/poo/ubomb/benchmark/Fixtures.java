@@ -0,0 +1,139 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.game.ArrayLevel;
+import fr.ubx.poo.ubomb.game.Configuration;
+import fr.ubx.poo.ubomb.game.OffscreenPolicy;
+import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Position;
+import fr.ubx.poo.ubomb.launcher.Entity;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+
+import java.util.Random;
+
+/**
+ * Generated maps for the benchmarks. Generation is seeded, so every run measures the same worlds.
+ */
+public final class Fixtures {
+
+    public static final long SEED = 42;
+
+    // Decors drawn for a non empty cell
+    private static final Entity[] decors = {
+            Entity.Stone, Entity.Stone, Entity.Stone, Entity.Tree, Entity.Tree, Entity.Box, Entity.Box, Entity.Box,
+            Entity.Heart, Entity.Key, Entity.BombRangeInc, Entity.BombRangeDec, Entity.BombNumberInc, Entity.BombNumberDec
+    };
+
+    private Fixtures() {}
+
+    /**
+     * Square level with about 30% of decors and randomly placed monsters.
+     * The first row and the first column are left empty so that the player at 0x0 can always move.
+     */
+    public static MapLevel level(int size, int monsters) {
+        Random random = new Random(SEED);
+        MapLevel level = new MapLevel(size, size);
+        for (int x = 0; x < size; x++)
+            for (int y = 0; y < size; y++) {
+                boolean free = x == 0 || y == 0 || random.nextInt(10) >= 3;
+                level.set(x, y, free ? Entity.Empty : decors[random.nextInt(decors.length)]);
+            }
+        placeMonsters(level, monsters, random);
+        return level;
+    }
+
+    // Empty level with the monsters on the cross centered on the middle of the map
+    public static MapLevel cross(int size, int monsters) {
+        MapLevel level = new MapLevel(size, size);
+        for (int x = 0; x < size; x++)
+            for (int y = 0; y < size; y++)
+                level.set(x, y, Entity.Empty);
+        int center = size / 2;
+        for (int i = 0, placed = 0; placed < monsters && i < size; i++) {
+            if (i == center)
+                continue;
+            level.set(center, i, Entity.Monster);
+            placed++;
+            if (placed < monsters) {
+                level.set(i, center, Entity.Monster);
+                placed++;
+            }
+        }
+        return level;
+    }
+
+    private static void placeMonsters(MapLevel level, int monsters, Random random) {
+        int size = level.width();
+        int free = 0;
+        for (int x = 1; x < size; x++)
+            for (int y = 1; y < size; y++)
+                if (level.get(x, y) == Entity.Empty)
+                    free++;
+        monsters = Math.min(monsters, free / 2);
+        while (monsters > 0) {
+            int x = 1 + random.nextInt(size - 1);
+            int y = 1 + random.nextInt(size - 1);
+            if (level.get(x, y) == Entity.Empty) {
+                level.set(x, y, Entity.Monster);
+                monsters--;
+            }
+        }
+    }
+
+    // Uncompressed form, rows separated by 'x'
+    public static String plain(MapLevel level) {
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < level.height(); y++) {
+            if (y > 0)
+                sb.append('x');
+            for (int x = 0; x < level.width(); x++)
+                sb.append(level.get(x, y).getCode());
+        }
+        return sb.toString();
+    }
+
+    // RLE form with single digit run lengths, the last run always carries its count
+    public static String rle(MapLevel level) {
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < level.height(); y++) {
+            if (y > 0)
+                sb.append('x');
+            int x = 0;
+            while (x < level.width()) {
+                Entity entity = level.get(x, y);
+                int run = 1;
+                while (run < 9 && x + run < level.width() && level.get(x + run, y) == entity)
+                    run++;
+                sb.append(entity.getCode());
+                if (run > 1 || (y == level.height() - 1 && x + run == level.width()))
+                    sb.append(run);
+                x += run;
+            }
+        }
+        return sb.toString();
+    }
+
+    public static Configuration configuration() {
+        return new Configuration(new Position(0, 0), 3, 5, 4000, 5, 1000,
+                Configuration.UNLIMITED_RESIDENT_LEVELS, false, OffscreenPolicy.FULL, false, SEED);
+    }
+
+    // Monsters walking towards the player
+    public static Configuration chaseConfiguration() {
+        return new Configuration(new Position(0, 0), 3, 5, 4000, 5, 1000,
+                Configuration.UNLIMITED_RESIDENT_LEVELS, true, OffscreenPolicy.FULL, false, SEED);
+    }
+
+    // Monster moves scanned from the monster store instead of a timer each
+    public static Configuration batchConfiguration() {
+        return new Configuration(new Position(0, 0), 3, 5, 4000, 5, 1000,
+                Configuration.UNLIMITED_RESIDENT_LEVELS, false, OffscreenPolicy.FULL, true, SEED);
+    }
+
+    public static Game game(MapLevel level) {
+        return game(level, configuration());
+    }
+
+    public static Game game(MapLevel level, Configuration configuration) {
+        return new Game(configuration, new ArrayLevel(level));
+    }
+}
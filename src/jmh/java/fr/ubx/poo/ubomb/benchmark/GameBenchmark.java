@@ -0,0 +1,96 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.game.Direction;
+import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Position;
+import fr.ubx.poo.ubomb.go.character.Player;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Per frame work of the model on a running game
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameBenchmark {
+
+    private static final int QUERIES = 256;
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"10", "1000"})
+    public int monsters;
+
+    private Game game;
+    private Player player;
+    private Game chaseGame;
+    private Game batchGame;
+    private final boolean[] simulated = {true};
+    private Position[] positions;
+    private long now;
+    private long moveInterval;
+    private int moves;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = Fixtures.game(Fixtures.level(size, monsters));
+        player = game.player();
+        chaseGame = Fixtures.game(Fixtures.level(size, monsters), Fixtures.chaseConfiguration());
+        batchGame = Fixtures.game(Fixtures.level(size, monsters), Fixtures.batchConfiguration());
+        Random random = new Random(Fixtures.SEED);
+        positions = new Position[QUERIES];
+        for (int i = 0; i < QUERIES; i++)
+            positions[i] = new Position(random.nextInt(size), random.nextInt(size));
+        moveInterval = (long) (Math.pow(10, 10) / game.configuration().monsterVelocity());
+    }
+
+    @Benchmark
+    public void getGameObjects(Blackhole bh) {
+        for (Position position : positions)
+            bh.consume(game.getGameObjects(position));
+    }
+
+    // Occupancy index lookup, allocation free
+    @Benchmark
+    public void getCharacters(Blackhole bh) {
+        for (Position position : positions)
+            bh.consume(game.getCharacters(position));
+    }
+
+    // Every monster is due to move
+    @Benchmark
+    public void monsterUpdate() {
+        now += moveInterval;
+        game.timers().advance(now);
+    }
+
+    // Same with the moves scanned from the monster store
+    @Benchmark
+    public void monsterBatchUpdate() {
+        now += moveInterval;
+        batchGame.timers().advance(now);
+        batchGame.monsterStore().update(batchGame.timers().now(), simulated);
+    }
+
+    // Every monster is due to move towards the player, who moves each time so that the field is computed again
+    @Benchmark
+    public void monsterChase() {
+        now += moveInterval;
+        Player target = chaseGame.player();
+        target.requestMove(moves++ % 2 == 0 ? Direction.RIGHT : Direction.LEFT);
+        target.update(now);
+        chaseGame.timers().advance(now);
+    }
+
+    // Back and forth on the first row, which is always free
+    @Benchmark
+    public Position playerUpdate() {
+        now += 1_000_000;
+        player.requestMove((moves++ & 1) == 0 ? Direction.RIGHT : Direction.LEFT);
+        player.update(now);
+        return player.getPosition();
+    }
+}
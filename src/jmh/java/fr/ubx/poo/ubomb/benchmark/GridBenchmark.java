@@ -0,0 +1,134 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.game.ArrayLevel;
+import fr.ubx.poo.ubomb.game.BlastRays;
+import fr.ubx.poo.ubomb.game.Direction;
+import fr.ubx.poo.ubomb.game.Grid;
+import fr.ubx.poo.ubomb.game.Level;
+import fr.ubx.poo.ubomb.game.Position;
+import fr.ubx.poo.ubomb.go.character.Monster;
+import fr.ubx.poo.ubomb.go.decor.Decor;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Decor lookups on the hash map grid and on the array grid
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GridBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final Direction[] directions = Direction.values();
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"hash", "array"})
+    public String grid;
+
+    private Grid level;
+    private BlastRays blastRays;
+    private int[] xs;
+    private int[] ys;
+
+    @Setup
+    public void setup() {
+        MapLevel mapLevel = Fixtures.level(size, 0);
+        level = grid.equals("hash") ? new Level(mapLevel) : new ArrayLevel(mapLevel);
+        blastRays = new BlastRays(level);
+        Random random = new Random(Fixtures.SEED);
+        xs = new int[QUERIES];
+        ys = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            xs[i] = random.nextInt(size);
+            ys[i] = random.nextInt(size);
+        }
+    }
+
+    // As the game does it: a new position for every neighbour
+    @Benchmark
+    public void getPosition(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++)
+            bh.consume(level.get(new Position(xs[i], ys[i])));
+    }
+
+    @Benchmark
+    public void getCoordinates(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++)
+            bh.consume(level.get(xs[i], ys[i]));
+    }
+
+    // Neighbour lookups with a new position per step, then with plain coordinates as the movement checks do
+    @Benchmark
+    public void neighboursPosition(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            Position position = new Position(xs[i], ys[i]);
+            for (Direction direction : directions)
+                bh.consume(level.get(direction.nextPosition(position)));
+        }
+    }
+
+    @Benchmark
+    public void neighboursCoordinates(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            for (Direction direction : directions)
+                bh.consume(level.get(xs[i] + direction.dx(), ys[i] + direction.dy()));
+        }
+    }
+
+    // Monster movement check, decor lookup and walkableBy dispatch against the bit layer
+    @Benchmark
+    public void walkableDispatch(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            for (Direction direction : directions) {
+                Decor next = level.get(xs[i] + direction.dx(), ys[i] + direction.dy());
+                bh.consume(next == null || next.walkableBy((Monster) null));
+            }
+        }
+    }
+
+    @Benchmark
+    public void walkableLayer(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            for (Direction direction : directions)
+                bh.consume(level.walkableByMonster(xs[i] + direction.dx(), ys[i] + direction.dy()));
+        }
+    }
+
+    // Extent of a blast of the level size from every query cell, walked cell by cell, then from the blast rays
+    @Benchmark
+    public void blastWalk(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            for (Direction direction : directions) {
+                int reached = 0;
+                while (reached < size) {
+                    int x = xs[i] + direction.dx() * (reached + 1);
+                    int y = ys[i] + direction.dy() * (reached + 1);
+                    if (!level.inside(x, y))
+                        break;
+                    reached++;
+                    if (level.stopsExplosion(x, y))
+                        break;
+                }
+                bh.consume(reached);
+            }
+        }
+    }
+
+    @Benchmark
+    public void blastRays(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            for (Direction direction : directions)
+                bh.consume(blastRays.reach(xs[i], ys[i], direction, size));
+        }
+    }
+
+    @Benchmark
+    public void values(Blackhole bh) {
+        level.values().forEach(bh::consume);
+    }
+}
@@ -0,0 +1,32 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.engine.InputQueue;
+import fr.ubx.poo.ubomb.engine.PlayerAction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// A burst of key events queued by the keyboard handlers then drained by a tick
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InputBenchmark {
+
+    @Param({"1", "16"})
+    public int events;
+
+    private final InputQueue queue = new InputQueue();
+    private long now;
+    private long applied;
+
+    @Benchmark
+    public long offerAndDrain() {
+        for (int i = 0; i < events; i++)
+            queue.offer(PlayerAction.MOVE_RIGHT, ++now);
+        queue.drain(now, (action, timestamp) -> {
+            applied += timestamp;
+            return true;
+        });
+        return applied;
+    }
+}
@@ -0,0 +1,70 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.game.ArrayLevel;
+import fr.ubx.poo.ubomb.game.ChunkedLevel;
+import fr.ubx.poo.ubomb.game.Level;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+import fr.ubx.poo.ubomb.launcher.MapLevelFile;
+import fr.ubx.poo.ubomb.launcher.MapLevelFileRLE;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Decoding and encoding of level strings and construction of the grid
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapBenchmark {
+
+    @Param({"16", "64", "256", "1024"})
+    public int size;
+
+    private MapLevel mapLevel;
+    private String plain;
+    private String rle;
+
+    @Setup
+    public void setup() {
+        mapLevel = Fixtures.level(size, size);
+        plain = Fixtures.plain(mapLevel);
+        rle = Fixtures.rle(mapLevel);
+    }
+
+    @Benchmark
+    public MapLevel loadPlain() {
+        return MapLevelFile.getInstance().load(plain);
+    }
+
+    @Benchmark
+    public MapLevel loadRle() {
+        return MapLevelFileRLE.getInstance().load(rle);
+    }
+
+    @Benchmark
+    public String exportRle() {
+        return MapLevelFileRLE.getInstance().export(mapLevel);
+    }
+
+    // Encoded with run lengths of any number of digits, then decoded back
+    @Benchmark
+    public MapLevel roundTripRle() {
+        MapLevelFileRLE repo = MapLevelFileRLE.getInstance();
+        return repo.load(repo.export(mapLevel));
+    }
+
+    @Benchmark
+    public Level buildLevel() {
+        return new Level(mapLevel);
+    }
+
+    @Benchmark
+    public ArrayLevel buildArrayLevel() {
+        return new ArrayLevel(mapLevel);
+    }
+
+    // Decors are not created until their chunk is accessed
+    @Benchmark
+    public ChunkedLevel buildChunkedLevel() {
+        return new ChunkedLevel(mapLevel);
+    }
+}
@@ -0,0 +1,41 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.engine.Simulation;
+import fr.ubx.poo.ubomb.engine.Timer;
+import fr.ubx.poo.ubomb.engine.TimerWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One simulation tick of the timer wheel with many live timers, most of them far from their deadline
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimerBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int timers;
+
+    private TimerWheel wheel;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        wheel = new TimerWheel();
+        Random random = new Random(Fixtures.SEED);
+        for (int i = 0; i < timers; i++) {
+            Timer[] timer = new Timer[1];
+            // Between 1 s and 1 min, started again on expiry like the monster moves
+            timer[0] = new Timer(wheel, 1000 + random.nextInt(59_000), () -> timer[0].start());
+            timer[0].start();
+        }
+    }
+
+    @Benchmark
+    public long tick() {
+        now += Simulation.DEFAULT_TICK_DURATION;
+        wheel.advance(now);
+        return wheel.getFired();
+    }
+}
@@ -0,0 +1,73 @@
+package fr.ubx.poo.ubomb.benchmark;
+
+import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.launcher.GameLauncher;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+import fr.ubx.poo.ubomb.launcher.MapLevelFileRLE;
+import fr.ubx.poo.ubomb.launcher.WorldFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Loading a world of many large levels, from the properties text format and from the binary format
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorldBenchmark {
+
+    @Param({"10", "100"})
+    public int levels;
+
+    @Param({"256"})
+    public int size;
+
+    private File properties;
+    private File binary;
+    private WorldFile world;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        properties = File.createTempFile("world", ".properties");
+        binary = File.createTempFile("world", ".ubw");
+        properties.deleteOnExit();
+        binary.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(new FileWriter(properties))) {
+            out.println("compression=true");
+            out.println("levels=" + levels);
+            out.println("player=0x0");
+            for (int i = 1; i <= levels; i++) {
+                MapLevel map = Fixtures.level(size, size / 8);
+                out.println("level" + i + "=" + MapLevelFileRLE.getInstance().export(map));
+            }
+        }
+        WorldFile.convert(properties, binary);
+        world = WorldFile.open(binary);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(properties.toPath());
+        Files.deleteIfExists(binary.toPath());
+    }
+
+    // The first level is built by both, the others stay encoded
+    @Benchmark
+    public Game loadProperties() {
+        return GameLauncher.load(properties, Fixtures.SEED);
+    }
+
+    @Benchmark
+    public Game loadBinary() {
+        return GameLauncher.load(binary, Fixtures.SEED);
+    }
+
+    @Benchmark
+    public MapLevel decodeBinaryLevel() {
+        return world.level(levels - 1);
+    }
+}
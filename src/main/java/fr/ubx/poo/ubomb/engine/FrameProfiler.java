@@ -0,0 +1,163 @@
+package fr.ubx.poo.ubomb.engine;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Times the phases of the game loop with {@link System#nanoTime()}.
+ * Each phase keeps its last {@value #WINDOW} samples in a ring buffer, recording is a couple of array stores;
+ * percentiles are only computed when the statistics are read (overlay refresh or dump).
+ */
+public class FrameProfiler {
+
+    public enum Phase {
+        // Engine (once per frame)
+        FRAME("frame"),
+        PROCESS_INPUT("processInput"),
+        SIMULATION("simulation"),
+        CREATE_NEW_BOMBS("createNewBombs"),
+        EXPLOSION_EFFECTS("explosionEffects"),
+        CLEANUP_SPRITES("cleanupSprites"),
+        RENDER("render"),
+        STATUS_BAR("statusBar.update"),
+        // Simulation (once per tick)
+        UPDATE("update"),
+        CHECK_COLLISION("checkCollision"),
+        CHECK_EXPLOSIONS("checkExplosions"),
+        // Input (once per event), from the key press to the tick applying it
+        INPUT_LATENCY("inputLatency");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public record Stats(long count, long p50, long p99, long max) {
+    }
+
+    private static final int WINDOW = 1024; // power of two
+    private static final FrameProfiler disabled = new FrameProfiler(false);
+
+    private final boolean enabled;
+    private final long[][] samples = new long[Phase.values().length][WINDOW];
+    private final long[] counts = new long[Phase.values().length];
+    private final long[] max = new long[Phase.values().length];
+    private InputQueue input; // Whose dropped events are reported, null if none
+
+    public FrameProfiler() {
+        this(true);
+    }
+
+    private FrameProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Profiler that records nothing
+    public static FrameProfiler disabled() {
+        return disabled;
+    }
+
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the duration of a phase.
+     *
+     * @param phase The timed phase.
+     * @param start The value returned by {@link #start()} when the phase began.
+     */
+    public void record(Phase phase, long start) {
+        if (!enabled)
+            return;
+        recordDuration(phase, System.nanoTime() - start);
+    }
+
+    // Record a duration measured by the caller, in ns
+    public void recordDuration(Phase phase, long duration) {
+        if (!enabled)
+            return;
+        int i = phase.ordinal();
+        samples[i][(int) (counts[i]++ & (WINDOW - 1))] = duration;
+        if (duration > max[i])
+            max[i] = duration;
+    }
+
+    // Report the events dropped by the queue with the timings
+    public void setInputQueue(InputQueue input) {
+        this.input = input;
+    }
+
+    // Inputs lost because the queue was full, since the start
+    public long droppedInputs() {
+        return input != null ? input.getDropped() : 0;
+    }
+
+    // Statistics over the rolling window, except max which is since the start
+    public Stats stats(Phase phase) {
+        int i = phase.ordinal();
+        int n = (int) Math.min(counts[i], WINDOW);
+        if (n == 0)
+            return new Stats(0, 0, 0, 0);
+        long[] sorted = Arrays.copyOf(samples[i], n);
+        Arrays.sort(sorted);
+        return new Stats(counts[i], sorted[(n - 1) / 2], sorted[(int) ((n - 1) * 0.99)], max[i]);
+    }
+
+    // One line per phase, times in µs
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format("%-18s %8s %8s %8s%n", "phase (us)", "p50", "p99", "max"));
+        for (Phase phase : Phase.values()) {
+            Stats stats = stats(phase);
+            sb.append(String.format("%-18s %8.1f %8.1f %8.1f%n", phase.label(),
+                    stats.p50() / 1000.0, stats.p99() / 1000.0, stats.max() / 1000.0));
+        }
+        sb.append(String.format("%-18s %8d%n", "droppedInputs", droppedInputs()));
+        return sb.toString();
+    }
+
+    public void writeCsv(PrintWriter out) {
+        out.println("phase,count,p50_ns,p99_ns,max_ns");
+        for (Phase phase : Phase.values()) {
+            Stats stats = stats(phase);
+            out.printf("%s,%d,%d,%d,%d%n", phase.label(), stats.count(), stats.p50(), stats.p99(), stats.max());
+        }
+        out.printf("droppedInputs,%d,,,%n", droppedInputs()); // A count, not timings
+    }
+
+    public void writeJson(PrintWriter out) {
+        out.println("{");
+        Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            Stats stats = stats(phases[i]);
+            out.printf("  \"%s\": {\"count\": %d, \"p50_ns\": %d, \"p99_ns\": %d, \"max_ns\": %d},%n",
+                    phases[i].label(), stats.count(), stats.p50(), stats.p99(), stats.max());
+        }
+        out.printf("  \"droppedInputs\": %d%n", droppedInputs());
+        out.println("}");
+    }
+
+    /**
+     * Write the statistics to prefix.csv and prefix.json.
+     *
+     * @param prefix The path of the files without extension.
+     */
+    public void dump(String prefix) {
+        try (PrintWriter csv = new PrintWriter(new FileWriter(prefix + ".csv"));
+             PrintWriter json = new PrintWriter(new FileWriter(prefix + ".json"))) {
+            writeCsv(csv);
+            writeJson(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,21 +4,18 @@
 
 package fr.ubx.poo.ubomb.engine;
 
-import fr.ubx.poo.ubomb.game.Direction;
+import fr.ubx.poo.ubomb.engine.FrameProfiler.Phase;
+import fr.ubx.poo.ubomb.game.BlastResolver;
 import fr.ubx.poo.ubomb.game.Game;
-import fr.ubx.poo.ubomb.game.Position;
-import fr.ubx.poo.ubomb.go.GameObject;
 import fr.ubx.poo.ubomb.go.character.Monster;
 import fr.ubx.poo.ubomb.go.character.Player;
 import fr.ubx.poo.ubomb.go.decor.Bomb;
 import fr.ubx.poo.ubomb.go.decor.door.Door;
 import fr.ubx.poo.ubomb.view.*;
 import javafx.animation.AnimationTimer;
-import javafx.animation.TranslateTransition;
 import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.Scene;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
@@ -26,7 +23,6 @@ import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
 import java.util.*;
 
@@ -34,21 +30,41 @@ import java.util.*;
 public final class GameEngine {
 
     private static AnimationTimer gameLoop;
+    // Profiler dumped at exit, that of the last engine built
+    private static volatile FrameProfiler exitProfiler;
+    private static boolean exitHookRegistered; // Engines are only built on the application thread
     private final Game game;
     private final Player player;
-    private final ArrayList<Monster> monsters;
-    private final List<Sprite> sprites = new LinkedList<>();
-    private final Set<Sprite> cleanUpSprites = new HashSet<>();
+    private final List<Monster> monsters;
+    private final SpriteRegistry sprites = new SpriteRegistry();
     private final Stage stage;
+    private final Simulation simulation;
+    private final RenderMode renderMode;
+    private TileCanvas tileCanvas;
+    private ExplosionPool explosions;
+    private final FrameProfiler profiler = new FrameProfiler();
+    private final ProfilerOverlay overlay = new ProfilerOverlay(profiler);
+    private long lastFrameTime = -1;
     private StatusBar statusBar;
     private Pane layer;
     private Input input;
+    // Player actions, kept across the scenes of the levels
+    private final InputQueue inputQueue = new InputQueue();
 
     public GameEngine(Game game, final Stage stage) {
+        this(game, stage, RenderMode.SPRITES);
+    }
+
+    public GameEngine(Game game, final Stage stage, RenderMode renderMode) {
         this.stage = stage;
+        this.renderMode = renderMode;
         this.game = game;
         this.player = game.player();
         this.monsters = game.monster();
+        this.simulation = new Simulation(game);
+        simulation.setProfiler(profiler);
+        profiler.setInputQueue(inputQueue);
+        dumpProfileAtExit();
         initialize();
         buildAndSetGameLoop();
     }
@@ -56,6 +72,7 @@ public final class GameEngine {
     private void initialize() {
         Group root = new Group();
         layer = new Pane();
+        explosions = new ExplosionPool(layer);
 
         int height = game.grid().height();
         int width = game.grid().width();
@@ -70,15 +87,13 @@ public final class GameEngine {
         stage.hide();
         stage.show();
 
-        input = new Input(scene);
+        input = new Input(scene, inputQueue);
         root.getChildren().add(layer);
         statusBar = new StatusBar(root, sceneWidth, sceneHeight, game);
+        overlay.attach(root);
 
         // Create sprites
-        for (var decor : game.grid().values()) {
-            sprites.add(SpriteFactory.create(layer, decor));
-            decor.setModified(true);
-        }
+        createDecorSprites();
 
         sprites.add(new SpritePlayer(layer, player));
 
@@ -89,103 +104,112 @@ public final class GameEngine {
         }
     }
 
+    /**
+     * Timings are written to prefix.csv and prefix.json at exit with -Dubomb.profile=prefix.
+     * A single hook is registered for the whole run, it dumps the profiler of the last engine,
+     * so the engines of the previous games are not kept alive.
+     */
+    private void dumpProfileAtExit() {
+        String prefix = System.getProperty("ubomb.profile");
+        if (prefix == null)
+            return;
+        exitProfiler = profiler;
+        if (!exitHookRegistered) {
+            exitHookRegistered = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> exitProfiler.dump(prefix)));
+        }
+    }
+
+    /**
+     * Record the actions of the player, the recording is written at exit for a later {@link Replay}.
+     *
+     * @param recording Started from the loaded world, it keeps the seed of the configuration of the game.
+     * @param path      The file of the recording.
+     */
+    public void record(InputRecording recording, String path) {
+        simulation.setRecording(recording);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            recording.finish(simulation);
+            recording.write(path);
+        }));
+    }
+
+    private void createDecorSprites() {
+        if (tileCanvas != null)
+            tileCanvas.remove();
+        tileCanvas = renderMode == RenderMode.CANVAS ? new TileCanvas(layer, game.grid()) : null;
+        // The canvas draws the other decors, so their creation is left to it
+        for (var decor : tileCanvas == null ? game.grid().values() : game.grid().createdValues()) {
+            if (tileCanvas == null || decor instanceof Bomb) { // Bombs stay sprites above the canvas
+                sprites.add(SpriteFactory.create(layer, decor));
+                decor.setModified(true);
+            }
+        }
+    }
+
     void buildAndSetGameLoop() {
         gameLoop = new AnimationTimer() {
             public void handle(long now) {
+                long frame = profiler.start();
+
                 // Check keyboard actions
+                long start = profiler.start();
                 processInput(now);
+                profiler.record(Phase.PROCESS_INPUT, start);
 
                 // Do actions
+                start = profiler.start();
                 update(now);
+                profiler.record(Phase.SIMULATION, start);
+                start = profiler.start();
                 createNewBombs(now);
-                checkCollision(now);
+                profiler.record(Phase.CREATE_NEW_BOMBS, start);
+                start = profiler.start();
                 checkExplosions();
+                profiler.record(Phase.EXPLOSION_EFFECTS, start);
 
                 // Graphic update
+                start = profiler.start();
                 cleanupSprites();
+                profiler.record(Phase.CLEANUP_SPRITES, start);
+                start = profiler.start();
                 render();
+                profiler.record(Phase.RENDER, start);
+                start = profiler.start();
                 statusBar.update(game);
+                profiler.record(Phase.STATUS_BAR, start);
+
+                profiler.record(Phase.FRAME, frame);
+                overlay.update(now);
             }
         };
     }
 
     private void checkExplosions() {
-        for(int i = 0; i < player.getBombs().size(); i++) {
-            Bomb b = player.getBombs().get(i);
-            if (b.hasDetonated()) { // Overlapped detonation
-                player.getBombs().remove(i);
-                if(b.getGridNumber() == game.getGridNumber()) {
-                    for (Position p : b.getExplosionBounds()) {
-                        animateExplosion(b.getPosition(), p);
-                    }
-                }
-                b.remove();
-            }
-            if(!b.getTimer().isRunning()) { // Manual detonation
-                b.explode();
-                // Duplicated to prevent frame skip
-                player.getBombs().remove(i);
-                if(b.getGridNumber() == game.getGridNumber()) {
-                    for (Position p : b.getExplosionBounds()) {
-                        animateExplosion(b.getPosition(), p);
-                    }
-                }
-                b.remove();
+        for (BlastResolver.Ray ray : simulation.drainExplosions()) {
+            if (ray.level() == game.getGridNumber()) {
+                explosions.play(ray.origin(), ray.end());
             }
         }
-        // Check explosions of bombs
-    }
-
-    private void animateExplosion(Position src, Position dst) {
-        ImageView explosion = new ImageView(ImageResource.EXPLOSION.getImage());
-        TranslateTransition tt = new TranslateTransition(Duration.millis(200), explosion);
-        tt.setFromX(src.x() * Sprite.size);
-        tt.setFromY(src.y() * Sprite.size);
-        tt.setToX(dst.x() * Sprite.size);
-        tt.setToY(dst.y() * Sprite.size);
-        tt.setOnFinished(e -> {
-            layer.getChildren().remove(explosion);
-        });
-        layer.getChildren().add(explosion);
-        tt.play();
     }
 
     private void createNewBombs(long now) {
-        if(player.isBombPlaced()) {
-            sprites.add(new SpriteBomb(layer,(Bomb)game.grid().get(player.getPosition())));
-            player.bombIsRendered();
-        }
-        // Create a new Bomb is needed
-    }
-
-    private void checkCollision(long now) {
-        List<GameObject> collided = game.getGameObjects(player.getPosition());
-        List<Monster> monsters = collided.stream().filter(c -> game.monster().contains(c)).map(c -> (Monster)c).toList();
-        if(!monsters.isEmpty()) {
-            monsters.forEach(m -> m.damage());
-            game.player().damage();
+        for (Bomb bomb : player.drainPlacedBombs()) {
+            // Those of a level left during the frame get their sprite when the level is displayed again
+            if (bomb.getGridNumber() == game.getGridNumber())
+                sprites.add(new SpriteBomb(layer, bomb));
         }
-        // Check a collision between a monster and the player
     }
 
     private void processInput(long now) {
+        if (input.isProfiler())
+            overlay.toggle();
         if (input.isExit()) {
             gameLoop.stop();
             Platform.exit();
             System.exit(0);
-        } else if (input.isMoveDown()) {
-            player.requestMove(Direction.DOWN);
-        } else if (input.isMoveLeft()) {
-            player.requestMove(Direction.LEFT);
-        } else if (input.isMoveRight()) {
-            player.requestMove(Direction.RIGHT);
-        } else if (input.isMoveUp()) {
-            player.requestMove(Direction.UP);
-        } else if (input.isKey()) {
-            player.interactWithDoor();
-        } else if (input.isBomb()) {
-            player.placeABomb();
         }
+        // The player actions are queued with their time and applied by the simulation ticks
         input.clear();
     }
 
@@ -209,15 +233,18 @@ public final class GameEngine {
 
 
     private void update(long now) {
-        if(game.gridNeedUpdate()) { // Level Change
-            game.updateGridForNewLevel();
+        // Run the simulation for the real time elapsed since the previous frame
+        if (lastFrameTime >= 0)
+            simulation.advance(now - lastFrameTime);
+        else
+            simulation.setInput(inputQueue, now); // The timer and the key events share the nanoTime clock
+        lastFrameTime = now;
+
+        if (simulation.pollLevelChange()) { // Level Change
+            sprites.clear();
 
             // Create sprites
-            for (var decor : game.grid().values()) {
-                sprites.add(SpriteFactory.create(layer, decor));
-                decor.setModified(true);
-            }
-            game.gridUpdated();
+            createDecorSprites();
             sprites.add(new SpritePlayer(layer,game.player()));
 
             for (Monster monster : monsters){
@@ -236,19 +263,11 @@ public final class GameEngine {
             stage.setScene(scene);
             stage.sizeToScene();
 
-            input = new Input(scene);
+            input = new Input(scene, inputQueue);
             root.getChildren().add(layer);
             statusBar = new StatusBar(root, sceneWidth, sceneHeight, game);
+            overlay.attach(root);
         }
-        player.update(now);
-        game.monster().forEach(m -> m.update(now));
-        player.getBombs().forEach(b -> {
-            long remainChanged = b.getTimer().remaining() / 1000;
-            b.getTimer().update(now);
-            if(remainChanged != b.getTimer().remaining() / 1000 && b.getGridNumber() == game.getGridNumber()) {
-                b.setModified(true);
-            }
-        });
         if (player.haveWon()){
             gameLoop.stop();
             showMessage("You win !", Color.GREEN);
@@ -260,21 +279,13 @@ public final class GameEngine {
     }
 
     public void cleanupSprites() {
-        sprites.forEach(sprite -> {
-            if (sprite.getGameObject().isDeleted()) {
-                game.grid().remove(sprite.getPosition());
-                cleanUpSprites.add(sprite);
-            } else if (game.gridNeedUpdate()) {
-                cleanUpSprites.addAll(sprites);
-            }
-        });
-        cleanUpSprites.forEach(Sprite::remove);
-        sprites.removeAll(cleanUpSprites);
-        cleanUpSprites.clear();
+        sprites.cleanup();
     }
 
     private void render() {
-        sprites.forEach(Sprite::render);
+        if (tileCanvas != null)
+            tileCanvas.render();
+        sprites.render();
     }
 
     public void start() {
@@ -21,13 +21,14 @@ public final class Input {
      */
     private final BitSet keyboardBitSet = new BitSet();
     /**
-     * "Key Pressed" handler for all input events: register pressed key in the bitset
+     * Queue of the player actions, drained by the simulation on each tick.
      */
-    private final EventHandler<KeyEvent> keyPressedEventHandler = event -> {
-
-        // register key down
-        keyboardBitSet.set(event.getCode().ordinal(), true);
-    };
+    private final InputQueue queue;
+    /**
+     * "Key Pressed" handler for all input events: queue the player action of the key with its time,
+     * register the other keys in the bitset
+     */
+    private final EventHandler<KeyEvent> keyPressedEventHandler = this::keyPressed;
     /**
      * "Key Released" handler for all input events: unregister released key in the bitset
      */
@@ -39,11 +40,26 @@ public final class Input {
     private final Scene scene;
 
     public Input(Scene scene) {
+        this(scene, new InputQueue());
+    }
+
+    public Input(Scene scene, InputQueue queue) {
         this.scene = scene;
+        this.queue = queue;
         scene.addEventFilter(KeyEvent.KEY_PRESSED, keyPressedEventHandler);
         scene.addEventFilter(KeyEvent.KEY_RELEASED, keyReleasedEventHandler);
     }
 
+    private void keyPressed(KeyEvent event) {
+        PlayerAction action = action(event.getCode());
+        if (action != null) {
+            queue.offer(action, System.nanoTime());
+        } else {
+            // register key down
+            keyboardBitSet.set(event.getCode().ordinal(), true);
+        }
+    }
+
     public void clear() {
         keyboardBitSet.clear();
     }
@@ -52,37 +68,32 @@ public final class Input {
         return keyboardBitSet.get(key.ordinal());
     }
 
-    // -------------------------------------------------
-    // Evaluate bitset of pressed keys and return the player input.
-    // If direction and its opposite direction are pressed simultaneously, then the
-    // direction isn't handled.
-    // -------------------------------------------------
-
-    public boolean isMoveUp() {
-        return is(UP) && !is(DOWN);
-    }
-
-    public boolean isMoveDown() {
-        return is(DOWN) && !is(UP);
-    }
-
-    public boolean isMoveLeft() {
-        return is(LEFT) && !is(RIGHT);
-    }
-
-    public boolean isMoveRight() {
-        return is(RIGHT) && !is(LEFT);
+    // Every press of these keys is queued, even if released before the next frame
+    private static PlayerAction action(KeyCode key) {
+        return switch (key) {
+            case UP -> PlayerAction.MOVE_UP;
+            case RIGHT -> PlayerAction.MOVE_RIGHT;
+            case DOWN -> PlayerAction.MOVE_DOWN;
+            case LEFT -> PlayerAction.MOVE_LEFT;
+            case ENTER -> PlayerAction.OPEN_DOOR;
+            case SPACE -> PlayerAction.BOMB;
+            default -> null;
+        };
     }
 
-    public boolean isBomb() {
-        return is(SPACE);
+    public InputQueue queue() {
+        return queue;
     }
 
-    public boolean isKey() {
-        return is(ENTER);
-    }
+    // -------------------------------------------------
+    // Evaluate bitset of pressed keys for the commands of the window.
+    // -------------------------------------------------
 
     public boolean isExit() {
         return is(ESCAPE);
     }
+
+    public boolean isProfiler() {
+        return is(F3);
+    }
 }
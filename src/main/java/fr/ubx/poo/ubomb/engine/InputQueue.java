@@ -0,0 +1,96 @@
+package fr.ubx.poo.ubomb.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue of timestamped player actions, from a single producer (the keyboard handlers)
+ * to a single consumer (the simulation). The events live in preallocated parallel arrays and the producer
+ * and consumer only share two counters, so offering an event never blocks nor allocates.
+ * When the queue is full the new event is dropped and counted.
+ */
+public class InputQueue {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Applies a drained event, returns false to stop draining after it
+    @FunctionalInterface
+    public interface Handler {
+        boolean apply(PlayerAction action, long timestamp);
+    }
+
+    private final PlayerAction[] actions;
+    private final long[] timestamps;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next event to drain, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // Next free slot, written by the producer
+    private final AtomicLong dropped = new AtomicLong();
+
+    public InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The maximum number of pending events, a power of two.
+     */
+    public InputQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        actions = new PlayerAction[capacity];
+        timestamps = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Queue an event, by the producer only. The timestamps of successive events must not decrease.
+     *
+     * @param timestamp The time of the event in ns, on the host clock of {@link System#nanoTime()}.
+     * @return false if the queue was full and the event dropped.
+     */
+    public boolean offer(PlayerAction action, long timestamp) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int i = (int) (t & mask);
+        actions[i] = action;
+        timestamps[i] = timestamp;
+        tail.lazySet(t + 1); // Publishes the slot written above
+        return true;
+    }
+
+    /**
+     * Apply in order the events that happened up to a time, by the consumer only.
+     *
+     * @param until   The time in ns, on the host clock, of the last events to apply.
+     * @param handler Applies each event with its timestamp.
+     * @return The number of events applied.
+     */
+    public int drain(long until, Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+        int count = 0;
+        while (h < t) {
+            int i = (int) (h & mask);
+            long timestamp = timestamps[i];
+            if (timestamp - until > 0)
+                break; // Later events wait for the tick they happened in
+            PlayerAction action = actions[i];
+            actions[i] = null;
+            head.lazySet(++h); // Frees the slot for the producer
+            count++;
+            if (!handler.apply(action, timestamp))
+                break;
+        }
+        return count;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    // Events lost because the queue was full
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,172 @@
+package fr.ubx.poo.ubomb.engine;
+
+import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.go.character.Monster;
+import fr.ubx.poo.ubomb.go.character.Player;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The player actions of a game with the tick each was applied in, enough to run the game again identically:
+ * the ticks are fixed steps of simulated time and the random streams of the game come from the recorded seed.
+ * The log also holds the hash of the world file, to replay on the same levels, and the tick count and
+ * a hash of the characters at the end, to check that the replay reached the same state.
+ * <p>
+ * Binary format, big endian: magic, version, SHA-256 of the world file, seed, tick duration in ns,
+ * the number of events then each event as the varint of the ticks since the previous one and the action
+ * ordinal, and last the final tick count and state hash.
+ */
+public class InputRecording {
+
+    private static final int MAGIC = 0x55425250; // "UBRP"
+    private static final int VERSION = 1;
+
+    public record Event(long tick, PlayerAction action) {}
+
+    private final byte[] worldHash;
+    private final long seed;
+    private final long tickDuration;
+    private final List<Event> events = new ArrayList<>();
+    private long finalTicks;
+    private long finalState;
+
+    public InputRecording(byte[] worldHash, long seed, long tickDuration) {
+        this.worldHash = worldHash;
+        this.seed = seed;
+        this.tickDuration = tickDuration;
+    }
+
+    // Start recording a game loaded from a world file, its seed is kept in the log
+    public static InputRecording start(File world, Game game) {
+        return new InputRecording(hash(world), game.configuration().seed(), Simulation.DEFAULT_TICK_DURATION);
+    }
+
+    // Called by the simulation for each action it applies
+    void add(long tick, PlayerAction action) {
+        events.add(new Event(tick, action));
+    }
+
+    // Keep the state reached by the simulation, checked by the replay
+    public void finish(Simulation simulation) {
+        finalTicks = simulation.getTicks();
+        finalState = stateHash(simulation.getGame());
+    }
+
+    // Hash of the player and monsters, enough to tell apart two runs that diverged
+    public static long stateHash(Game game) {
+        Player player = game.player();
+        long hash = game.getGridNumber();
+        hash = 31 * hash + player.getPosition().hashCode();
+        hash = 31 * hash + player.getLives();
+        hash = 31 * hash + player.getKeys();
+        hash = 31 * hash + player.getBombBag();
+        hash = 31 * hash + player.getBombRange();
+        for (Monster monster : game.monster()) {
+            hash = 31 * hash + monster.getGridNumber();
+            hash = 31 * hash + monster.getPosition().hashCode();
+        }
+        return hash;
+    }
+
+    public static byte[] hash(File world) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(world.toPath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean isRecordOf(File world) {
+        return Arrays.equals(worldHash, hash(world));
+    }
+
+    public void write(String path) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.write(worldHash);
+            out.writeLong(seed);
+            out.writeLong(tickDuration);
+            writeVarLong(out, events.size());
+            long previous = 0;
+            for (Event event : events) {
+                writeVarLong(out, event.tick() - previous);
+                out.writeByte(event.action().ordinal());
+                previous = event.tick();
+            }
+            out.writeLong(finalTicks);
+            out.writeLong(finalState);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static InputRecording read(String path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION)
+                throw new IOException(path + " is not an input recording");
+            byte[] worldHash = new byte[32];
+            in.readFully(worldHash);
+            InputRecording recording = new InputRecording(worldHash, in.readLong(), in.readLong());
+            long count = readVarLong(in);
+            PlayerAction[] actions = PlayerAction.values();
+            long tick = 0;
+            for (long i = 0; i < count; i++) {
+                tick += readVarLong(in);
+                recording.add(tick, actions[in.readUnsignedByte()]);
+            }
+            recording.finalTicks = in.readLong();
+            recording.finalState = in.readLong();
+            return recording;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 7 bits per byte, the high bit set on every byte but the last
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public long getFinalTicks() {
+        return finalTicks;
+    }
+
+    public long getFinalState() {
+        return finalState;
+    }
+}
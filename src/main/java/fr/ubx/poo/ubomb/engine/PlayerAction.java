@@ -0,0 +1,24 @@
+package fr.ubx.poo.ubomb.engine;
+
+import fr.ubx.poo.ubomb.game.Direction;
+
+// Actions of the player fed to the simulation by the keyboard
+public enum PlayerAction {
+    MOVE_UP(Direction.UP),
+    MOVE_RIGHT(Direction.RIGHT),
+    MOVE_DOWN(Direction.DOWN),
+    MOVE_LEFT(Direction.LEFT),
+    OPEN_DOOR(null),
+    BOMB(null);
+
+    private final Direction direction;
+
+    PlayerAction(Direction direction) {
+        this.direction = direction;
+    }
+
+    // The direction of a move, null for the other actions
+    public Direction direction() {
+        return direction;
+    }
+}
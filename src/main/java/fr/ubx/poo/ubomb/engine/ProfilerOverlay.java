@@ -0,0 +1,40 @@
+package fr.ubx.poo.ubomb.engine;
+
+import javafx.scene.Group;
+import javafx.scene.text.Text;
+
+// On-screen view of the frame profiler, toggled with F3
+public class ProfilerOverlay {
+
+    private static final long REFRESH_PERIOD = 500_000_000L; // ns
+
+    private final FrameProfiler profiler;
+    private final Text text = new Text();
+    private long lastRefresh;
+
+    public ProfilerOverlay(FrameProfiler profiler) {
+        this.profiler = profiler;
+        text.getStyleClass().add("profiler");
+        text.setX(5);
+        text.setY(15);
+        text.setVisible(false);
+        text.setMouseTransparent(true);
+    }
+
+    // The scene is rebuilt on level change, the overlay follows it
+    public void attach(Group root) {
+        root.getChildren().add(text);
+    }
+
+    public void toggle() {
+        text.setVisible(!text.isVisible());
+        lastRefresh = 0;
+    }
+
+    public void update(long now) {
+        if (text.isVisible() && now - lastRefresh >= REFRESH_PERIOD) {
+            text.setText(profiler.summary());
+            lastRefresh = now;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package fr.ubx.poo.ubomb.engine;
+
+// How the static decors of the current level are drawn
+public enum RenderMode {
+    // One sprite (image view) per decor
+    SPRITES,
+    // Canvases of 32x32 cells, only for the tiles in view and repainted cell by cell, for large levels
+    CANVAS;
+
+    // Default mode, can be set with -Dubomb.renderer=canvas
+    public static RenderMode fromSystemProperty() {
+        return "canvas".equalsIgnoreCase(System.getProperty("ubomb.renderer")) ? CANVAS : SPRITES;
+    }
+}
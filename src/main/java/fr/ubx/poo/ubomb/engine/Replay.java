@@ -0,0 +1,57 @@
+package fr.ubx.poo.ubomb.engine;
+
+import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.launcher.GameLauncher;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Runs a recorded game again without rendering, as fast as possible, and checks that it ends in the recorded state.
+ * Usage: {@code Replay <recording> <world.properties>}, the exit status is 1 if the replay diverged.
+ */
+public final class Replay {
+
+    public record Result(long ticks, long expectedTicks, long state, long expectedState, long duration) {
+        public boolean matches() {
+            return ticks == expectedTicks && state == expectedState;
+        }
+    }
+
+    private Replay() {
+    }
+
+    public static Result run(InputRecording recording, File world) {
+        if (!recording.isRecordOf(world))
+            throw new IllegalArgumentException(world + " is not the world of the recording");
+        Game game = GameLauncher.load(world, recording.getSeed());
+        Simulation simulation = new Simulation(game, recording.getTickDuration());
+        // The events go through the queue as when recorded, timestamped with the time of their tick
+        InputQueue queue = new InputQueue();
+        simulation.setInput(queue, 0);
+        List<InputRecording.Event> events = recording.getEvents();
+        int next = 0;
+        long start = System.nanoTime();
+        while (simulation.getTicks() < recording.getFinalTicks() && !simulation.isOver()) {
+            long tick = simulation.getTicks() + 1;
+            while (next < events.size() && events.get(next).tick() == tick)
+                queue.offer(events.get(next++).action(), tick * recording.getTickDuration());
+            simulation.tick();
+        }
+        return new Result(simulation.getTicks(), recording.getFinalTicks(), InputRecording.stateHash(game),
+                recording.getFinalState(), System.nanoTime() - start);
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: Replay <recording> <world.properties>");
+            System.exit(2);
+        }
+        Result result = run(InputRecording.read(args[0]), new File(args[1]));
+        System.out.printf("%d ticks in %.1f ms, %s%n", result.ticks(), result.duration() / 1e6,
+                result.matches() ? "same final state" : "DIVERGED from the recording (expected "
+                        + result.expectedTicks() + " ticks, state " + Long.toHexString(result.expectedState())
+                        + ", got state " + Long.toHexString(result.state()) + ")");
+        System.exit(result.matches() ? 0 : 1);
+    }
+}
@@ -0,0 +1,266 @@
+package fr.ubx.poo.ubomb.engine;
+
+import fr.ubx.poo.ubomb.game.BlastResolver;
+import fr.ubx.poo.ubomb.game.ChunkedLevel;
+import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Grid;
+import fr.ubx.poo.ubomb.game.OffscreenPolicy;
+import fr.ubx.poo.ubomb.game.Position;
+import fr.ubx.poo.ubomb.go.character.Character;
+import fr.ubx.poo.ubomb.go.character.Monster;
+import fr.ubx.poo.ubomb.go.character.Player;
+import fr.ubx.poo.ubomb.go.decor.Bomb;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Headless game loop: advances a {@link Game} by fixed ticks of simulated time.
+ * It has no JavaFX dependency, the {@link GameEngine} only drives it and renders the result,
+ * so a game can also be run without a stage (bots, soak tests, server side matches).
+ */
+public class Simulation {
+
+    public static final long DEFAULT_TICK_DURATION = 1_000_000_000L / 60; // ns
+
+    // Upper bound of ticks run by a single advance, to avoid spiralling when the host is late
+    private static final int MAX_TICKS_PER_ADVANCE = 5;
+    // Upper bound of the moves replayed by a monster with the fast forward policy
+    private static final int MAX_FAST_FORWARD_MOVES = 600;
+
+    private final Game game;
+    private final Player player;
+    private final long tickDuration;
+    private final List<BlastResolver.Ray> explosions = new ArrayList<>();
+    private final boolean[] simulatedLevels; // Levels whose monsters move, with batched monster moves
+    private long now;
+    private long ticks;
+    private long lag;
+    private InputQueue input; // null when the player is only driven through its methods
+    private long hostOrigin;  // ns, time of the host clock at the simulated time 0
+    private InputRecording recording; // null unless the applied actions are recorded
+    private boolean levelChanged;
+    private FrameProfiler profiler = FrameProfiler.disabled();
+    private long compactionInterval; // ticks, 0 to never compact
+    private int compactionRadius;
+
+    public Simulation(Game game) {
+        this(game, DEFAULT_TICK_DURATION);
+    }
+
+    public Simulation(Game game, long tickDuration) {
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("Tick duration must be positive");
+        this.game = game;
+        this.player = game.player();
+        this.tickDuration = tickDuration;
+        this.simulatedLevels = new boolean[game.levelCount()];
+    }
+
+    /**
+     * Run as many ticks as fit in the elapsed real time, the remainder is kept for the next call.
+     *
+     * @param elapsed The elapsed time in ns since the previous call.
+     * @return The number of ticks run.
+     */
+    public int advance(long elapsed) {
+        lag += elapsed;
+        int count = 0;
+        while (lag >= tickDuration && count < MAX_TICKS_PER_ADVANCE && !isOver()) {
+            tick();
+            lag -= tickDuration;
+            count++;
+        }
+        if (count == MAX_TICKS_PER_ADVANCE) {
+            hostOrigin += lag; // The dropped time never happened for the input events
+            lag = 0; // Drop the backlog instead of running late forever
+        }
+        return count;
+    }
+
+    /**
+     * Run a number of ticks back to back, as fast as possible.
+     *
+     * @param count The number of ticks to run.
+     */
+    public void run(long count) {
+        for (long i = 0; i < count && !isOver(); i++) {
+            tick();
+        }
+    }
+
+    public void tick() {
+        now += tickDuration;
+        ticks++;
+        long start = profiler.start();
+        update();
+        profiler.record(FrameProfiler.Phase.UPDATE, start);
+        start = profiler.start();
+        checkCollision();
+        profiler.record(FrameProfiler.Phase.CHECK_COLLISION, start);
+        start = profiler.start();
+        checkExplosions();
+        profiler.record(FrameProfiler.Phase.CHECK_EXPLOSIONS, start);
+        if (game.gridNeedUpdate()) { // Level Change
+            game.updateGridForNewLevel();
+            game.gridUpdated();
+            int replayed = game.configuration().offscreenPolicy() == OffscreenPolicy.FAST_FORWARD
+                    ? MAX_FAST_FORWARD_MOVES : 0;
+            for (Monster monster : game.monsters(game.getGridNumber()))
+                monster.resume(replayed);
+            levelChanged = true;
+        }
+        if (compactionInterval > 0 && ticks % compactionInterval == 0)
+            compactLevels();
+    }
+
+    // Drop the decors of the chunks nobody is near, on the chunked levels
+    private void compactLevels() {
+        for (int i = 0; i < game.levelCount(); i++) {
+            if (game.getResidentGrid(i) instanceof ChunkedLevel level)
+                level.compact(compactionRadius);
+        }
+    }
+
+    private void update() {
+        if (input != null)
+            input.drain(hostOrigin + now, this::apply);
+        player.update(now);
+        // Monster moves, bomb fuses and countdowns, ends of invincibility
+        game.timers().advance(now);
+        if (game.configuration().batchMonsterMoves())
+            game.monsterStore().update(game.timers().now(), simulatedLevels());
+    }
+
+    // Each event is applied on its own, so that several presses in a tick are not collapsed into one move
+    private boolean apply(PlayerAction action, long timestamp) {
+        profiler.recordDuration(FrameProfiler.Phase.INPUT_LATENCY, System.nanoTime() - timestamp);
+        if (recording != null)
+            recording.add(ticks, action);
+        switch (action) {
+            case OPEN_DOOR -> player.interactWithDoor();
+            case BOMB -> player.placeABomb();
+            default -> {
+                player.requestMove(action.direction());
+                player.update(now);
+            }
+        }
+        return !game.gridNeedUpdate(); // The events after a level change wait for the new level
+    }
+
+    // The current level, and the other resident ones unless their monsters are left behind
+    private boolean[] simulatedLevels() {
+        OffscreenPolicy policy = game.configuration().offscreenPolicy();
+        boolean others = policy == OffscreenPolicy.FULL || policy == OffscreenPolicy.COARSE;
+        for (int i = 0; i < simulatedLevels.length; i++)
+            simulatedLevels[i] = i == game.getGridNumber() || (others && game.getResidentGrid(i) != null);
+        return simulatedLevels;
+    }
+
+    // Check a collision between a monster and the player
+    private void checkCollision() {
+        List<Character> characters = game.getCharacters(player.getPosition());
+        boolean collided = false;
+        for (int i = characters.size() - 1; i >= 0; i--) { // Backwards as dead monsters leave the list
+            if (characters.get(i) instanceof Monster monster) {
+                monster.damage();
+                collided = true;
+            }
+        }
+        if (collided) {
+            player.damage();
+        }
+    }
+
+    // Blasts of the bombs gone off during the tick, chain reactions included
+    private void checkExplosions() {
+        explosions.addAll(game.blasts().resolve());
+        Iterator<Bomb> it = player.getBombs().iterator();
+        while (it.hasNext()) {
+            Bomb bomb = it.next();
+            if (bomb.hasDetonated()) {
+                it.remove();
+                bomb.remove();
+                Grid grid = game.getGrid(bomb.getGridNumber());
+                Position position = bomb.getPosition();
+                if (grid.get(position) == bomb)
+                    grid.remove(position);
+            }
+        }
+    }
+
+    /**
+     * @return The rays of the blasts since the previous call, as a single batch for the renderer.
+     */
+    public List<BlastResolver.Ray> drainExplosions() {
+        if (explosions.isEmpty())
+            return List.of();
+        List<BlastResolver.Ray> batch = new ArrayList<>(explosions);
+        explosions.clear();
+        return batch;
+    }
+
+    /**
+     * @return true once after each level change, so that the renderer can rebuild its scene.
+     */
+    public boolean pollLevelChange() {
+        boolean changed = levelChanged;
+        levelChanged = false;
+        return changed;
+    }
+
+    /**
+     * Apply the player actions of a queue on each tick. An event is applied by the first tick whose time,
+     * on the host clock, is not before its timestamp.
+     *
+     * @param input    The queue filled by the keyboard.
+     * @param hostTime The current time of the host clock in ns, that of {@link System#nanoTime()}.
+     */
+    public void setInput(InputQueue input, long hostTime) {
+        this.input = input;
+        this.hostOrigin = hostTime - now - lag;
+    }
+
+    // Record the actions with the tick they are applied in
+    public void setRecording(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Periodically compact the chunked levels, for headless runs on very large worlds.
+     * Not for a rendered game: the sprites of the dropped decors would no longer follow the model.
+     *
+     * @param interval The number of ticks between two compactions, 0 to disable.
+     * @param radius   The distance in chunks around the characters where chunks are kept.
+     */
+    public void setCompaction(long interval, int radius) {
+        this.compactionInterval = interval;
+        this.compactionRadius = radius;
+    }
+
+    public boolean isOver() {
+        return player.haveWon() || player.getLives() <= 0;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    // Simulated time in ns
+    public long now() {
+        return now;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+}
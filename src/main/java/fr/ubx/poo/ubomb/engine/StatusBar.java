@@ -27,13 +27,18 @@ public class StatusBar {
     private final Text keys = new Text();
     private final HBox level = new HBox();
 
+    // Values currently displayed, nodes are only touched when one of them changes
+    private int shownLevel = -1;
+    private int shownLives = -1;
+    private int shownBombs = -1;
+    private int shownRange = -1;
+    private int shownKeys = -1;
 
     public StatusBar(Group root, int sceneWidth, int sceneHeight, Game game) {
         // Status bar
         this.game = game;
 
         level.getStyleClass().add("level");
-        level.getChildren().add(new ImageView(ImageResourceFactory.digit(1).getImage()));
 
         ds.setRadius(5.0);
         ds.setOffsetX(3.0);
@@ -55,6 +60,7 @@ public class StatusBar {
         hBox.relocate(0, sceneHeight);
         hBox.setPrefSize(sceneWidth, height);
         root.getChildren().add(hBox);
+        update(game);
     }
 
     private HBox statusGroup(Image kind, Text number) {
@@ -71,11 +77,38 @@ public class StatusBar {
 
     public void update(Game game) {
         Player player = game.player();
-        level.getChildren().remove(0);
-        level.getChildren().add(new ImageView(ImageResourceFactory.digit(game.getGridNumber()+1).getImage()));
-        lives.setText(Integer.toString(player.getLives()));
-        bombRange.setText(Integer.toString(player.getBombRange()));
-        availableBombs.setText(Integer.toString(player.getBombBag()));
-        keys.setText(Integer.toString(player.getKeys()));
+        if (game.getGridNumber() + 1 != shownLevel) {
+            shownLevel = game.getGridNumber() + 1;
+            showLevel(shownLevel);
+        }
+        if (player.getLives() != shownLives) {
+            shownLives = player.getLives();
+            lives.setText(Integer.toString(shownLives));
+        }
+        if (player.getBombRange() != shownRange) {
+            shownRange = player.getBombRange();
+            bombRange.setText(Integer.toString(shownRange));
+        }
+        if (player.getBombBag() != shownBombs) {
+            shownBombs = player.getBombBag();
+            availableBombs.setText(Integer.toString(shownBombs));
+        }
+        if (player.getKeys() != shownKeys) {
+            shownKeys = player.getKeys();
+            keys.setText(Integer.toString(shownKeys));
+        }
+    }
+
+    // One digit image per decimal digit, the image views are reused
+    private void showLevel(int number) {
+        String digits = Integer.toString(number);
+        while (level.getChildren().size() < digits.length())
+            level.getChildren().add(new ImageView());
+        while (level.getChildren().size() > digits.length())
+            level.getChildren().remove(level.getChildren().size() - 1);
+        for (int i = 0; i < digits.length(); i++) {
+            ImageView digit = (ImageView) level.getChildren().get(i);
+            digit.setImage(ImageResourceFactory.digit(digits.charAt(i) - '0').getImage());
+        }
     }
 }
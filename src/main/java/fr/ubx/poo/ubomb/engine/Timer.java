@@ -4,46 +4,61 @@
 
 package fr.ubx.poo.ubomb.engine;
 
-import java.io.Serializable;
-
+/**
+ * Timer scheduled on the {@link TimerWheel} of the game: nothing polls it, the callback is run
+ * by the wheel when the deadline is reached.
+ */
 public class Timer {
+    private final TimerWheel wheel;
     private final long duration;
-    private long startTime;
+    private final Runnable onExpired;
     private boolean running = false;
-    private boolean requested = false;
-    private long remaining;
+
+    // Managed by the wheel
+    long deadline; // ms
+    int level;
+    int slot;
+    Timer previous;
+    Timer next;
 
     // Set a timer for a duration in ms
-    public Timer(long duration) {
+    public Timer(TimerWheel wheel, long duration, Runnable onExpired) {
+        this.wheel = wheel;
         this.duration = duration;
-        remaining = duration;
+        this.onExpired = onExpired;
+    }
+
+    public void start() {
+        start(duration);
     }
 
-    public void update(long now) {
-        // time is in ns
+    // Start, or restart, for another delay than the duration of the timer
+    public void start(long delay) {
+        if (running)
+            wheel.cancel(this);
+        running = true;
+        wheel.schedule(this, delay);
+    }
+
+    public void cancel() {
         if (running) {
-            remaining = duration - (now - startTime) / 1000000;
-            if (remaining < 0) {
-                running = false;
-            }
-        } else if (requested) {
-            running = true;
-            requested = false;
-            startTime = now;
-            remaining = duration;
+            running = false;
+            wheel.cancel(this);
         }
     }
 
-    public long remaining() {
-        return remaining;
+    void expire() {
+        running = false;
+        if (onExpired != null)
+            onExpired.run();
     }
 
-    public void start() {
-        if (!running)
-            requested = true;
+    // Time left in ms, 0 once expired
+    public long remaining() {
+        return running ? wheel.remaining(this) : 0;
     }
 
     public boolean isRunning() {
-        return running || requested;
+        return running;
     }
 }
@@ -0,0 +1,163 @@
+package fr.ubx.poo.ubomb.engine;
+
+/**
+ * Hierarchical timing wheel driving every {@link Timer} of a game, with a resolution of 1 ms.
+ * Each of the {@value #LEVELS} levels has {@value #SLOTS} slots, a slot of a level spans a whole turn of the level below.
+ * A timer sits in the slot of its deadline at the lowest level whose current turn contains it, and moves down
+ * when the wheel reaches that slot, so that advancing the time only visits the timers that expire.
+ * Timers beyond the last level wait in an overflow list, looked at once per turn of the last level (about 4.6 hours).
+ * A timer started between two advances, like by an input or a collision, counts from the next advance,
+ * the time at which the game sees it started, and expires once more than its delay has elapsed.
+ */
+public class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final int PENDING = -1;
+
+    // Heads of the doubly linked lists of timers, chained through the timers themselves
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private Timer overflow;
+    private Timer pending; // Started since the last advance, their deadline holds their delay
+    private boolean advancing;
+    private long current; // ms, every slot up to this time has been processed
+    private int scheduled;
+    private long fired;
+
+    /**
+     * Fire the timers whose deadline is reached, in deadline order.
+     *
+     * @param now The current time in ns.
+     */
+    public void advance(long now) {
+        long target = now / 1_000_000;
+        Timer timer = pending;
+        pending = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.deadline = Math.max(target + timer.deadline + 1, current + 1);
+            insert(timer);
+            timer = next;
+        }
+        advancing = true;
+        while (current < target) {
+            current++;
+            int level = 0;
+            while (level < LEVELS && (current & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0)
+                level++;
+            if (level == LEVELS)
+                reinsert(detachOverflow());
+            for (int l = Math.min(level, LEVELS - 1); l > 0; l--) // Move down the timers of the slots just reached
+                reinsert(detach(l, (int) (current >> (SLOT_BITS * l)) & (SLOTS - 1)));
+            fire((int) current & (SLOTS - 1));
+        }
+        advancing = false;
+    }
+
+    // Current time in ms
+    public long now() {
+        return current;
+    }
+
+    // Number of running timers
+    public int size() {
+        return scheduled;
+    }
+
+    // Number of timers fired since the creation of the wheel
+    public long getFired() {
+        return fired;
+    }
+
+    void schedule(Timer timer, long delay) {
+        if (!advancing) {
+            timer.deadline = delay;
+            timer.level = PENDING;
+            link(timer, pending);
+            pending = timer;
+        } else {
+            timer.deadline = current + Math.max(1, delay); // Due now, fired on the next step
+            insert(timer);
+        }
+        scheduled++;
+    }
+
+    long remaining(Timer timer) {
+        return timer.level == PENDING ? timer.deadline : Math.max(0, timer.deadline - current);
+    }
+
+    void cancel(Timer timer) {
+        unlink(timer);
+        scheduled--;
+    }
+
+    private void insert(Timer timer) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((timer.deadline >> shift) == (current >> shift)) {
+                timer.level = level;
+                timer.slot = (int) (timer.deadline >> (SLOT_BITS * level)) & (SLOTS - 1);
+                link(timer, slots[level][timer.slot]);
+                slots[level][timer.slot] = timer;
+                return;
+            }
+        }
+        timer.level = LEVELS;
+        link(timer, overflow);
+        overflow = timer;
+    }
+
+    private static void link(Timer timer, Timer head) {
+        timer.previous = null;
+        timer.next = head;
+        if (head != null)
+            head.previous = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.previous != null)
+            timer.previous.next = timer.next;
+        else if (timer.level == LEVELS)
+            overflow = timer.next;
+        else if (timer.level == PENDING)
+            pending = timer.next;
+        else
+            slots[timer.level][timer.slot] = timer.next;
+        if (timer.next != null)
+            timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+    }
+
+    private Timer detach(int level, int slot) {
+        Timer head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    private Timer detachOverflow() {
+        Timer head = overflow;
+        overflow = null;
+        return head;
+    }
+
+    private void reinsert(Timer timer) {
+        while (timer != null) {
+            Timer next = timer.next;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    // One timer at a time, as a callback may cancel another timer of the slot or start its own again
+    private void fire(int slot) {
+        Timer timer;
+        while ((timer = slots[0][slot]) != null) {
+            unlink(timer);
+            scheduled--;
+            fired++;
+            timer.expire();
+        }
+    }
+}
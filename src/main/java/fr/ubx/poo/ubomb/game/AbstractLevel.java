@@ -0,0 +1,363 @@
+package fr.ubx.poo.ubomb.game;
+
+import fr.ubx.poo.ubomb.go.character.Character;
+import fr.ubx.poo.ubomb.go.character.Monster;
+import fr.ubx.poo.ubomb.go.character.Player;
+import fr.ubx.poo.ubomb.go.decor.*;
+import fr.ubx.poo.ubomb.go.decor.bonus.*;
+import fr.ubx.poo.ubomb.go.decor.door.Door;
+import fr.ubx.poo.ubomb.launcher.Entity;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Common part of the grids built from a {@link MapLevel}: decoding of the entities, bounds and listeners.
+ * Subclasses only provide the storage of the decors.
+ */
+public abstract class AbstractLevel implements Grid {
+
+    protected final int width;
+
+    protected final int height;
+
+    private static final int WALKABLE_BY_PLAYER = 1;
+    private static final int WALKABLE_BY_MONSTER = 2;
+    private static final int STOPS_EXPLOSION = 4;
+    private static final int ATTENUATES_EXPLOSION = 8;
+    // Layers of a freshly created decor of each entity, so that the map can be loaded without creating the decors
+    private static final int[] entityLayers = new int[Entity.values().length];
+
+    static {
+        for (Entity entity : Entity.values())
+            entityLayers[entity.ordinal()] = layers(createDecor(entity, null));
+    }
+
+    private final Position[] positions;
+    private final ArrayList<Position> monsters = new ArrayList<>();
+    private final List<GridListener> listeners = new ArrayList<>();
+    // Occupancy index, only the occupied cells have an entry
+    private final Map<Position, List<Character>> characters = new HashMap<>();
+    // Bit layers indexed by y * width + x, kept in sync with the decors by set and remove
+    private final BitSet walkableByPlayer;
+    private final BitSet walkableByMonster;
+    private final BitSet stopsExplosion;
+    private final BitSet attenuatesExplosion;
+
+    protected AbstractLevel(int width, int height) {
+        this(width, height, true);
+    }
+
+    /**
+     * @param internPositions false to build a new position on each call instead of keeping
+     *                        one reference per cell, for the very large grids.
+     */
+    protected AbstractLevel(int width, int height, boolean internPositions) {
+        this.width = width;
+        this.height = height;
+        this.positions = internPositions ? new Position[width * height] : null;
+        this.walkableByPlayer = new BitSet(width * height);
+        this.walkableByMonster = new BitSet(width * height);
+        this.stopsExplosion = new BitSet(width * height);
+        this.attenuatesExplosion = new BitSet(width * height);
+        walkableByPlayer.set(0, width * height);
+        walkableByMonster.set(0, width * height);
+    }
+
+    /**
+     * Create the decors of the map, subclasses call it once their storage is ready.
+     *
+     * @param entities The decoded map.
+     */
+    protected void load(MapLevel entities) {
+        for (int i = 0; i < width; i++)
+            for (int j = 0; j < height; j++) {
+                Entity entity = entities.get(i, j);
+                if (entity == Entity.Monster) {
+                    monsters.add(position(i, j));
+                } else if (entity != Entity.Empty) {
+                    setLayers(j * width + i, entityLayers[entity.ordinal()]);
+                    loadCell(i, j, entity);
+                }
+            }
+    }
+
+    // Store a decor of the map, by default the decor is created right away
+    protected void loadCell(int x, int y, Entity entity) {
+        setCell(x, y, newDecor(entity, x, y));
+    }
+
+    // Decor of an entity of the map, placed in this grid
+    protected Decor newDecor(Entity entity, int x, int y) {
+        Decor decor = createDecor(entity, position(x, y));
+        if (decor != null)
+            decor.setGrid(this);
+        return decor;
+    }
+
+    public static Decor createDecor(Entity entity, Position position) {
+        return switch (entity) {
+            case Stone -> new Stone(position);
+            case Tree -> new Tree(position);
+            case Key -> new Key(position);
+            case Heart -> new Hearth(position);
+            case Box -> new Box(position);
+            case Princess -> new Princess(position);
+            case BombRangeDec -> new BombRangeModifier(position, -1);
+            case BombRangeInc -> new BombRangeModifier(position, 1);
+            case BombNumberDec -> new BombNumberModifier(position, -1);
+            case BombNumberInc -> new BombNumberModifier(position, 1);
+            case DoorNextOpened -> new Door(position, false, 1);
+            case DoorNextClosed -> new Door(position, true, 1);
+            case DoorPrevOpened -> new Door(position, false, -1);
+            case Empty, Monster -> null;
+        };
+    }
+
+    /**
+     * Inverse of {@link #createDecor(Entity, Position)}.
+     *
+     * @return The entity of the decor, null if its state cannot be written as an entity (bomb, locked previous door).
+     */
+    public static Entity entityOf(Decor decor) {
+        if (decor instanceof Stone) return Entity.Stone;
+        if (decor instanceof Tree) return Entity.Tree;
+        if (decor instanceof Key) return Entity.Key;
+        if (decor instanceof Hearth) return Entity.Heart;
+        if (decor instanceof Box) return Entity.Box;
+        if (decor instanceof Princess) return Entity.Princess;
+        if (decor instanceof BombRangeModifier modifier)
+            return modifier.getRangeModifier() < 0 ? Entity.BombRangeDec : Entity.BombRangeInc;
+        if (decor instanceof BombNumberModifier modifier)
+            return modifier.getModifier() < 0 ? Entity.BombNumberDec : Entity.BombNumberInc;
+        if (decor instanceof Door door) {
+            if (door.getLevelModifier() > 0)
+                return door.isLocked() ? Entity.DoorNextClosed : Entity.DoorNextOpened;
+            if (!door.isLocked())
+                return Entity.DoorPrevOpened;
+        }
+        return null;
+    }
+
+    // Every decor is created with the grid unless a subclass defers it
+    @Override
+    public Collection<Decor> createdValues() {
+        return values();
+    }
+
+    @Override
+    public Position door(int levelModifier) {
+        for (Decor decor : values())
+            if (decor instanceof Door door && door.getLevelModifier() == levelModifier)
+                return door.getPosition();
+        return null;
+    }
+
+    @Override
+    public MapLevel save() {
+        MapLevel saved = new MapLevel(width, height);
+        for (Decor decor : values()) {
+            Entity entity = entityOf(decor);
+            if (entity == null)
+                return null;
+            saved.set(decor.getPosition().x(), decor.getPosition().y(), entity);
+        }
+        return saved;
+    }
+
+    // Storage of the decors, the coordinates are inside the grid
+    protected abstract Decor cell(int x, int y);
+
+    protected abstract void setCell(int x, int y, Decor decor);
+
+    @Override
+    public int width() {
+        return this.width;
+    }
+
+    @Override
+    public int height() {
+        return this.height;
+    }
+
+    // Positions are records, so interning them keeps equality while sparing the allocations
+    @Override
+    public Position position(int x, int y) {
+        if (positions == null || !inside(x, y))
+            return new Position(x, y);
+        int i = y * width + x;
+        Position position = positions[i];
+        if (position == null)
+            positions[i] = position = new Position(x, y);
+        return position;
+    }
+
+    @Override
+    public Decor get(Position position) {
+        return get(position.x(), position.y());
+    }
+
+    @Override
+    public Decor get(int x, int y) {
+        return inside(x, y) ? cell(x, y) : null;
+    }
+
+    @Override
+    public void remove(Position position) {
+        remove(position.x(), position.y());
+    }
+
+    @Override
+    public void remove(int x, int y) {
+        if (inside(x, y) && cell(x, y) != null) {
+            setCell(x, y, null);
+            updateLayers(x, y, null);
+            fireCellChanged(x, y);
+        }
+    }
+
+    @Override
+    public void set(Position position, Decor decor) {
+        set(position.x(), position.y(), decor);
+    }
+
+    @Override
+    public void set(int x, int y, Decor decor) {
+        if (!inside(x, y))
+            throw new IllegalArgumentException("Illegal Position");
+        if (decor != null) {
+            decor.setGrid(this);
+            setCell(x, y, decor);
+            updateLayers(x, y, decor);
+            fireCellChanged(x, y);
+        }
+    }
+
+    @Override
+    public void refresh(Decor decor) {
+        int x = decor.getPosition().x();
+        int y = decor.getPosition().y();
+        if (get(x, y) == decor) { // Not once it was removed
+            updateLayers(x, y, decor);
+            fireCellChanged(x, y);
+        }
+    }
+
+    @Override
+    public boolean inside(Position position) {
+        return inside(position.x(), position.y());
+    }
+
+    @Override
+    public boolean inside(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private void updateLayers(int x, int y, Decor decor) {
+        setLayers(y * width + x, layers(decor));
+    }
+
+    private void setLayers(int i, int layers) {
+        walkableByPlayer.set(i, (layers & WALKABLE_BY_PLAYER) != 0);
+        walkableByMonster.set(i, (layers & WALKABLE_BY_MONSTER) != 0);
+        stopsExplosion.set(i, (layers & STOPS_EXPLOSION) != 0);
+        attenuatesExplosion.set(i, (layers & ATTENUATES_EXPLOSION) != 0);
+    }
+
+    /**
+     * Decors answer walkableBy without looking at the character, except the box whose answer
+     * depends on the push direction: it only gets the attenuation bit and is asked on each move.
+     */
+    private static int layers(Decor decor) {
+        if (decor == null)
+            return WALKABLE_BY_PLAYER | WALKABLE_BY_MONSTER;
+        if (decor instanceof Box)
+            return ATTENUATES_EXPLOSION;
+        int layers = decor.walkableBy((Player) null) ? WALKABLE_BY_PLAYER : STOPS_EXPLOSION;
+        if (decor.walkableBy((Monster) null))
+            layers |= WALKABLE_BY_MONSTER;
+        return layers;
+    }
+
+    @Override
+    public boolean walkableByPlayer(int x, int y) {
+        return inside(x, y) && walkableByPlayer.get(y * width + x);
+    }
+
+    @Override
+    public boolean walkableByMonster(int x, int y) {
+        return inside(x, y) && walkableByMonster.get(y * width + x);
+    }
+
+    @Override
+    public boolean stopsExplosion(int x, int y) {
+        return inside(x, y) && stopsExplosion.get(y * width + x);
+    }
+
+    @Override
+    public boolean attenuatesExplosion(int x, int y) {
+        return inside(x, y) && attenuatesExplosion.get(y * width + x);
+    }
+
+    @Override
+    public ArrayList<Position> getMonstersPositions() {
+        return monsters;
+    }
+
+    @Override
+    public List<Character> getCharacters(Position position) {
+        List<Character> occupants = characters.get(position);
+        return occupants == null ? List.of() : occupants;
+    }
+
+    @Override
+    public void addCharacter(Character character) {
+        characters.computeIfAbsent(character.getPosition(), p -> new ArrayList<>(2)).add(character);
+    }
+
+    @Override
+    public void removeCharacter(Character character) {
+        removeCharacter(character, character.getPosition());
+    }
+
+    @Override
+    public void moveCharacter(Character character, Position from, Position to) {
+        removeCharacter(character, from);
+        characters.computeIfAbsent(to, p -> new ArrayList<>(2)).add(character);
+    }
+
+    // Cells where at least one character stands
+    protected Set<Position> occupiedCells() {
+        return characters.keySet();
+    }
+
+    private void removeCharacter(Character character, Position position) {
+        List<Character> occupants = characters.get(position);
+        if (occupants != null && occupants.remove(character) && occupants.isEmpty())
+            characters.remove(position);
+    }
+
+    @Override
+    public void addListener(GridListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(GridListener listener) {
+        listeners.remove(listener);
+    }
+
+    protected void fireCellChanged(int x, int y) {
+        if (listeners.isEmpty())
+            return;
+        Position position = position(x, y);
+        for (GridListener listener : listeners)
+            listener.cellChanged(position);
+    }
+}
@@ -0,0 +1,75 @@
+package fr.ubx.poo.ubomb.game;
+
+import fr.ubx.poo.ubomb.go.decor.Decor;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Grid storing its decors in a flat array indexed by y * width + x
+public class ArrayLevel extends AbstractLevel {
+
+    private final Decor[] cells;
+    private int size;
+
+    public ArrayLevel(MapLevel entities) {
+        super(entities.width(), entities.height());
+        this.cells = new Decor[width * height];
+        load(entities);
+    }
+
+    @Override
+    protected Decor cell(int x, int y) {
+        return cells[y * width + x];
+    }
+
+    @Override
+    protected void setCell(int x, int y, Decor decor) {
+        int i = y * width + x;
+        if (cells[i] == null && decor != null)
+            size++;
+        else if (cells[i] != null && decor == null)
+            size--;
+        cells[i] = decor;
+    }
+
+    // View of the non empty cells
+    @Override
+    public Collection<Decor> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Decor> iterator() {
+                return new Iterator<>() {
+                    private int next = skipEmpty(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < cells.length;
+                    }
+
+                    @Override
+                    public Decor next() {
+                        if (!hasNext())
+                            throw new NoSuchElementException();
+                        Decor decor = cells[next];
+                        next = skipEmpty(next + 1);
+                        return decor;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int skipEmpty(int i) {
+        while (i < cells.length && cells[i] == null)
+            i++;
+        return i;
+    }
+}
@@ -0,0 +1,136 @@
+package fr.ubx.poo.ubomb.game;
+
+import fr.ubx.poo.ubomb.launcher.GameLauncher;
+
+/**
+ * For every cell and direction, the distance to the next tile stopping or attenuating explosions, or to the
+ * first cell out of the grid. The distances are computed once for the level and updated incrementally
+ * along the row and column of a cell whose decor changes, so tracing a blast jumps from tile to tile.
+ * Distances are saturated at {@value #CAP}. Levels of at least {@link #UNCACHED_LEVEL_CELLS} cells, those that
+ * are chunked and meant to stay lazy, are not cached: the distances are then found by walking the grid.
+ */
+public class BlastRays implements GridListener {
+
+    public static final int UNCACHED_LEVEL_CELLS = GameLauncher.CHUNKED_LEVEL_CELLS;
+    private static final int CAP = 255;
+    private static final Direction[] directions = Direction.values();
+
+    private final Grid grid;
+    private final int width;
+    private final byte[][] distances; // Unsigned, by direction ordinal then cell, null if not cached
+
+    public BlastRays(Grid grid) {
+        this.grid = grid;
+        this.width = grid.width();
+        if ((long) grid.width() * grid.height() < UNCACHED_LEVEL_CELLS) {
+            distances = new byte[directions.length][grid.width() * grid.height()];
+            boolean[] blocking = new boolean[grid.width() * grid.height()];
+            for (int y = 0; y < grid.height(); y++)
+                for (int x = 0; x < width; x++)
+                    blocking[y * width + x] = blocks(x, y);
+            for (Direction direction : directions)
+                compute(direction, blocking);
+            grid.addListener(this);
+        } else {
+            distances = null;
+        }
+    }
+
+    /**
+     * @return The distance from the cell to the next tile in the direction that stops or attenuates explosions,
+     * or is out of the grid. At most {@value #CAP}, the tile at that distance may then be free.
+     */
+    public int next(int x, int y, Direction direction) {
+        if (distances != null)
+            return distances[direction.ordinal()][y * width + x] & 0xFF;
+        int distance = 1;
+        while (distance < CAP && !blocks(x + direction.dx() * distance, y + direction.dy() * distance))
+            distance++;
+        return distance;
+    }
+
+    /**
+     * Cells reached by a blast, for a bot avoiding the danger zones. Boxes do not shorten the blast.
+     *
+     * @return The number of cells reached in the direction, the origin excluded.
+     */
+    public int reach(int x, int y, Direction direction, int range) {
+        int reached = 0;
+        while (reached < range) {
+            int distance = next(x + direction.dx() * reached, y + direction.dy() * reached, direction);
+            int tx = x + direction.dx() * (reached + distance);
+            int ty = y + direction.dy() * (reached + distance);
+            if (!grid.inside(tx, ty))
+                return Math.min(range, reached + distance - 1);
+            reached += distance;
+            if (grid.stopsExplosion(tx, ty))
+                break;
+        }
+        return Math.min(range, reached);
+    }
+
+    // Only the cells looking at the changed one through free cells are updated
+    @Override
+    public void cellChanged(Position position) {
+        for (Direction direction : directions) {
+            byte[] distance = distances[direction.ordinal()];
+            int x = position.x() - direction.dx();
+            int y = position.y() - direction.dy();
+            while (grid.inside(x, y)) {
+                int updated = distanceFrom(distance, x, y, direction);
+                if (updated == (distance[y * width + x] & 0xFF))
+                    break; // The cells behind are not affected either
+                distance[y * width + x] = (byte) updated;
+                if (blocks(x, y))
+                    break;
+                x -= direction.dx();
+                y -= direction.dy();
+            }
+        }
+    }
+
+    public void remove() {
+        if (distances != null)
+            grid.removeListener(this);
+    }
+
+    // Along each row or column from its far end, so that the neighbour in the direction is computed first
+    private void compute(Direction direction, boolean[] blocking) {
+        byte[] distance = distances[direction.ordinal()];
+        int height = grid.height();
+        if (direction.dx() != 0) {
+            int first = direction.dx() > 0 ? width - 1 : 0;
+            for (int y = 0; y < height; y++) {
+                int run = 0;
+                for (int x = first; x >= 0 && x < width; x -= direction.dx()) {
+                    int next = x + direction.dx();
+                    run = next < 0 || next >= width || blocking[y * width + next] ? 1 : Math.min(CAP, run + 1);
+                    distance[y * width + x] = (byte) run;
+                }
+            }
+        } else {
+            int first = direction.dy() > 0 ? height - 1 : 0;
+            for (int y = first; y >= 0 && y < height; y -= direction.dy()) {
+                int next = y + direction.dy();
+                for (int x = 0; x < width; x++) {
+                    if (next < 0 || next >= height || blocking[next * width + x])
+                        distance[y * width + x] = 1;
+                    else
+                        distance[y * width + x] = (byte) Math.min(CAP, (distance[next * width + x] & 0xFF) + 1);
+                }
+            }
+        }
+    }
+
+    private int distanceFrom(byte[] distance, int x, int y, Direction direction) {
+        int nx = x + direction.dx();
+        int ny = y + direction.dy();
+        if (blocks(nx, ny))
+            return 1;
+        return Math.min(CAP, (distance[ny * width + nx] & 0xFF) + 1);
+    }
+
+    private boolean blocks(int x, int y) {
+        return !grid.inside(x, y) || grid.stopsExplosion(x, y) || grid.attenuatesExplosion(x, y);
+    }
+}
@@ -0,0 +1,137 @@
+package fr.ubx.poo.ubomb.game;
+
+import fr.ubx.poo.ubomb.go.character.Character;
+import fr.ubx.poo.ubomb.go.decor.Bomb;
+import fr.ubx.poo.ubomb.go.decor.Decor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves together the bombs going off in a tick, whether their fuse burnt out or another bomb set them off.
+ * A bomb reached by a blast joins the bombs being resolved, so a chain reaction is resolved in a single pass.
+ * The rays are traced with the {@link BlastRays} of the level as it was before the blast, then each blasted
+ * cell is hit once: its characters are damaged and, unless only reached behind a box, its decor is destroyed.
+ */
+public class BlastResolver {
+
+    // A ray of a blast, from the bomb to the last cell it reached, for the renderer
+    public record Ray(int level, Position origin, Position end) {}
+
+    private final Game game;
+    // Bombs that went off and whose blast is not resolved yet, in the order they went off
+    private final List<Bomb> pending = new ArrayList<>();
+    // Cells of the level being resolved, true if their decor is destroyed
+    private final Map<Position, Boolean> blasted = new LinkedHashMap<>();
+
+    public BlastResolver(Game game) {
+        this.game = game;
+    }
+
+    // The bomb goes off, its blast is resolved with the others of the tick
+    public void trigger(Bomb bomb) {
+        if (!bomb.hasDetonated()) {
+            bomb.detonate();
+            pending.add(bomb);
+        }
+    }
+
+    /**
+     * Resolve the blasts of the bombs that went off since the previous call, with the chain reactions they cause.
+     *
+     * @return The rays of every blast, in the order the bombs went off.
+     */
+    public List<Ray> resolve() {
+        if (pending.isEmpty())
+            return List.of();
+        List<Ray> rays = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            // A blast never leaves its level, so the levels are resolved one after the other
+            int level = pending.get(0).getGridNumber();
+            Grid grid = game.getGrid(level);
+            BlastRays blastRays = game.blastRays(level);
+            for (int i = 0; i < pending.size(); i++) { // Bombs reached by the rays are appended meanwhile
+                Bomb bomb = pending.get(i);
+                if (bomb.getGridNumber() == level) {
+                    for (Direction direction : Direction.values())
+                        rays.add(new Ray(level, bomb.getPosition(), trace(grid, blastRays, bomb, direction)));
+                }
+            }
+            pending.removeIf(bomb -> bomb.getGridNumber() == level);
+            hitCells(grid);
+        }
+        return rays;
+    }
+
+    /**
+     * Mark the cells reached by a ray and set off the bombs on them. The ray jumps over the free cells
+     * to the next blocking tile or box given by the blast rays of the level.
+     *
+     * @return The last cell reached.
+     */
+    private Position trace(Grid grid, BlastRays blastRays, Bomb bomb, Direction direction) {
+        int x = bomb.getPosition().x();
+        int y = bomb.getPosition().y();
+        int range = bomb.getRange();
+        Position end = bomb.getPosition();
+        blasted.put(end, true);
+        boolean boxEncountered = false;
+        int reached = 0; // Cells reached beyond the bomb
+        while (reached < range) {
+            int free = Math.min(blastRays.next(x, y, direction) - 1, range - reached);
+            for (int i = 0; i < free; i++) {
+                x += direction.dx();
+                y += direction.dy();
+                end = hit(grid, x, y);
+            }
+            reached += free;
+            if (reached == range)
+                break;
+            x += direction.dx();
+            y += direction.dy();
+            reached++;
+            if (!grid.inside(x, y)) {
+                break;
+            } else if (grid.stopsExplosion(x, y)) { // Blocking tiles
+                end = grid.position(x, y);
+                blasted.put(end, true);
+                break;
+            } else if (grid.attenuatesExplosion(x, y)) { // Only the first box of the ray is destroyed
+                end = grid.position(x, y);
+                blasted.merge(end, !boxEncountered, Boolean::logicalOr);
+                boxEncountered = true;
+            } else { // Free cell beyond the saturated distance
+                end = hit(grid, x, y);
+            }
+        }
+        return end;
+    }
+
+    private Position hit(Grid grid, int x, int y) {
+        Position position = grid.position(x, y);
+        blasted.put(position, true);
+        if (grid.get(x, y) instanceof Bomb reached)
+            trigger(reached);
+        return position;
+    }
+
+    private void hitCells(Grid grid) {
+        for (Map.Entry<Position, Boolean> cell : blasted.entrySet()) {
+            Position position = cell.getKey();
+            // Player or monsters of the bomb level, backwards as dead characters leave the list
+            List<Character> characters = grid.getCharacters(position);
+            for (int c = characters.size() - 1; c >= 0; c--)
+                characters.get(c).explode();
+            Decor decor = grid.get(position);
+            if (cell.getValue() && decor != null) {
+                decor.explode();
+                // Destroyed decors leave the grid right away, as the renderer only follows the model
+                if (decor.isDeleted() && grid.get(position) == decor)
+                    grid.remove(position);
+            }
+        }
+        blasted.clear();
+    }
+}
@@ -0,0 +1,301 @@
+package fr.ubx.poo.ubomb.game;
+
+import fr.ubx.poo.ubomb.go.decor.Decor;
+import fr.ubx.poo.ubomb.go.decor.door.Door;
+import fr.ubx.poo.ubomb.launcher.Entity;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Grid for very large worlds, split in chunks of {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} cells.
+ * A chunk without any decor is not allocated. A chunk keeps the entity codes of its cells until one
+ * of them is accessed, then its decors are created. Materialised chunks far from every character
+ * can be compacted back to entity codes with {@link #compact(int)}.
+ */
+public class ChunkedLevel extends AbstractLevel {
+
+    public static final int CHUNK_SIZE = 32; // power of two
+    private static final int SHIFT = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+    private static final int MASK = CHUNK_SIZE - 1;
+    private static final Entity[] entities = Entity.values();
+    // Level modifier of the door of each entity, 0 if the entity is not a door
+    private static final int[] doorModifiers = new int[entities.length];
+
+    static {
+        for (Entity entity : entities)
+            if (createDecor(entity, null) instanceof Door door)
+                doorModifiers[entity.ordinal()] = door.getLevelModifier();
+    }
+
+    private static class Chunk {
+        byte[] codes;   // Entity ordinals, while the chunk is compact
+        Decor[] decors; // Once materialised
+        int size;       // Non empty cells
+    }
+
+    private final int chunksX;
+    private final int chunksY;
+    private final Chunk[] chunks;
+    private int size;
+
+    public ChunkedLevel(MapLevel entities) {
+        super(entities.width(), entities.height(), false);
+        this.chunksX = (width + MASK) >> SHIFT;
+        this.chunksY = (height + MASK) >> SHIFT;
+        this.chunks = new Chunk[chunksX * chunksY];
+        load(entities);
+    }
+
+    // Decors are only created when their chunk is first accessed
+    @Override
+    protected void loadCell(int x, int y, Entity entity) {
+        Chunk chunk = chunk(x, y, true);
+        if (chunk.codes == null)
+            chunk.codes = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        chunk.codes[index(x, y)] = (byte) entity.ordinal();
+        chunk.size++;
+        size++;
+    }
+
+    @Override
+    protected Decor cell(int x, int y) {
+        Chunk chunk = chunk(x, y, false);
+        if (chunk == null)
+            return null;
+        return materialise(chunk, x >> SHIFT, y >> SHIFT)[index(x, y)];
+    }
+
+    @Override
+    protected void setCell(int x, int y, Decor decor) {
+        Chunk chunk = chunk(x, y, decor != null);
+        if (chunk == null)
+            return;
+        Decor[] decors = materialise(chunk, x >> SHIFT, y >> SHIFT);
+        int i = index(x, y);
+        if (decors[i] == null && decor != null) {
+            chunk.size++;
+            size++;
+        } else if (decors[i] != null && decor == null) {
+            chunk.size--;
+            size--;
+        }
+        decors[i] = decor;
+    }
+
+    /**
+     * Turn the materialised chunks back to entity codes when no character stands within a distance
+     * of radius chunks. Chunks holding a decor without entity code (bomb, locked previous door) are kept,
+     * empty chunks are released. The dropped decors must not be referenced elsewhere, like by sprites.
+     *
+     * @param radius The distance in chunks around the characters where chunks are kept.
+     * @return The number of chunks compacted or released.
+     */
+    public int compact(int radius) {
+        boolean[] active = new boolean[chunks.length];
+        for (Position position : occupiedCells()) {
+            int cx = position.x() >> SHIFT;
+            int cy = position.y() >> SHIFT;
+            for (int y = Math.max(0, cy - radius); y <= Math.min(chunksY - 1, cy + radius); y++)
+                for (int x = Math.max(0, cx - radius); x <= Math.min(chunksX - 1, cx + radius); x++)
+                    active[y * chunksX + x] = true;
+        }
+        int compacted = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            if (chunk == null || chunk.decors == null || active[c])
+                continue;
+            if (chunk.size == 0) {
+                chunks[c] = null;
+                compacted++;
+                continue;
+            }
+            byte[] codes = new byte[CHUNK_SIZE * CHUNK_SIZE];
+            boolean compactable = true;
+            for (int i = 0; i < codes.length && compactable; i++) {
+                if (chunk.decors[i] != null) {
+                    Entity entity = entityOf(chunk.decors[i]);
+                    compactable = entity != null;
+                    if (compactable)
+                        codes[i] = (byte) entity.ordinal();
+                }
+            }
+            if (compactable) {
+                chunk.codes = codes;
+                chunk.decors = null;
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    // Number of allocated chunks, and of those holding decors
+    public int allocatedChunks() {
+        int allocated = 0;
+        for (Chunk chunk : chunks)
+            if (chunk != null)
+                allocated++;
+        return allocated;
+    }
+
+    public int materialisedChunks() {
+        int materialised = 0;
+        for (Chunk chunk : chunks)
+            if (chunk != null && chunk.decors != null)
+                materialised++;
+        return materialised;
+    }
+
+    // Compact chunks are searched through their entity codes, they stay compact
+    @Override
+    public Position door(int levelModifier) {
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            if (chunk == null)
+                continue;
+            for (int i = 0; i < CHUNK_SIZE * CHUNK_SIZE; i++) {
+                if (chunk.decors != null) {
+                    if (chunk.decors[i] instanceof Door door && door.getLevelModifier() == levelModifier)
+                        return door.getPosition();
+                } else if (doorModifiers[chunk.codes[i]] == levelModifier) {
+                    return position(((c % chunksX) << SHIFT) | (i & MASK), ((c / chunksX) << SHIFT) | (i >> SHIFT));
+                }
+            }
+        }
+        return null;
+    }
+
+    // The codes of the compact chunks are copied as they are
+    @Override
+    public MapLevel save() {
+        MapLevel saved = new MapLevel(width, height);
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            if (chunk == null || chunk.size == 0)
+                continue;
+            for (int i = 0; i < CHUNK_SIZE * CHUNK_SIZE; i++) {
+                Entity entity;
+                if (chunk.decors != null) {
+                    if (chunk.decors[i] == null)
+                        continue;
+                    entity = entityOf(chunk.decors[i]);
+                    if (entity == null)
+                        return null;
+                } else {
+                    entity = entities[chunk.codes[i]];
+                    if (entity == Entity.Empty)
+                        continue;
+                }
+                saved.set(((c % chunksX) << SHIFT) | (i & MASK), ((c / chunksX) << SHIFT) | (i >> SHIFT), entity);
+            }
+        }
+        return saved;
+    }
+
+    // View of the non empty cells, it materialises every chunk it goes through
+    @Override
+    public Collection<Decor> values() {
+        return new Cells(true);
+    }
+
+    // View of the decors of the materialised chunks, the compact ones are skipped
+    @Override
+    public Collection<Decor> createdValues() {
+        return new Cells(false);
+    }
+
+    private class Cells extends AbstractCollection<Decor> {
+        private final boolean materialise;
+
+        Cells(boolean materialise) {
+            this.materialise = materialise;
+        }
+
+        private boolean visited(Chunk chunk) {
+            return chunk != null && chunk.size > 0 && (materialise || chunk.decors != null);
+        }
+
+        @Override
+        public Iterator<Decor> iterator() {
+            return new Iterator<>() {
+                private int chunk = -1;
+                private int cell = CHUNK_SIZE * CHUNK_SIZE;
+                private Decor next = advance();
+
+                private Decor advance() {
+                    while (true) {
+                        if (++cell >= CHUNK_SIZE * CHUNK_SIZE) {
+                            do {
+                                if (++chunk >= chunks.length)
+                                    return null;
+                            } while (!visited(chunks[chunk]));
+                            cell = 0;
+                        }
+                        Decor decor = materialise(chunks[chunk], chunk % chunksX, chunk / chunksX)[cell];
+                        if (decor != null)
+                            return decor;
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Decor next() {
+                    if (next == null)
+                        throw new NoSuchElementException();
+                    Decor decor = next;
+                    next = advance();
+                    return decor;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            if (materialise)
+                return size;
+            int created = 0;
+            for (Chunk chunk : chunks)
+                if (visited(chunk))
+                    created += chunk.size;
+            return created;
+        }
+    }
+
+    private Chunk chunk(int x, int y, boolean create) {
+        int c = (y >> SHIFT) * chunksX + (x >> SHIFT);
+        Chunk chunk = chunks[c];
+        if (chunk == null && create)
+            chunks[c] = chunk = new Chunk();
+        return chunk;
+    }
+
+    private static int index(int x, int y) {
+        return ((y & MASK) << SHIFT) | (x & MASK);
+    }
+
+    private Decor[] materialise(Chunk chunk, int cx, int cy) {
+        if (chunk.decors != null)
+            return chunk.decors;
+        Decor[] decors = new Decor[CHUNK_SIZE * CHUNK_SIZE];
+        if (chunk.codes != null) {
+            for (int i = 0; i < decors.length; i++) {
+                Entity entity = entities[chunk.codes[i]];
+                if (entity != Entity.Empty) {
+                    int x = (cx << SHIFT) | (i & MASK);
+                    int y = (cy << SHIFT) | (i >> SHIFT);
+                    decors[i] = newDecor(entity, x, y);
+                }
+            }
+        }
+        chunk.decors = decors;
+        chunk.codes = null;
+        return decors;
+    }
+}
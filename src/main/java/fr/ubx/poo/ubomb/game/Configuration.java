@@ -1,5 +1,31 @@
 package fr.ubx.poo.ubomb.game;
 
+import java.util.SplittableRandom;
+
+/**
+ * @param maxResidentLevels The number of built levels kept in memory, the least recently entered ones
+ *                          beyond it are saved as maps and built again on the next entry.
+ * @param monsterChase      true if the monsters of the player's level walk towards the player instead of at random.
+ * @param offscreenPolicy   How the monsters of the other levels are simulated.
+ * @param batchMonsterMoves true if the moves of the monsters are due times scanned by the monster store each tick,
+ *                          rather than a timer per monster. Cheaper with thousands of monsters.
+ * @param seed              The seed of the random streams of the game, the same seed gives the same game.
+ */
 public record Configuration(Position playerPosition, int bombBagCapacity, int playerLives, long playerInvincibilityTime,
-                            int monsterVelocity, long monsterInvincibilityTime) {
+                            int monsterVelocity, long monsterInvincibilityTime, int maxResidentLevels,
+                            boolean monsterChase, OffscreenPolicy offscreenPolicy, boolean batchMonsterMoves,
+                            long seed) {
+
+    public static final int UNLIMITED_RESIDENT_LEVELS = Integer.MAX_VALUE;
+
+    public Configuration(Position playerPosition, int bombBagCapacity, int playerLives, long playerInvincibilityTime,
+                         int monsterVelocity, long monsterInvincibilityTime) {
+        this(playerPosition, bombBagCapacity, playerLives, playerInvincibilityTime, monsterVelocity,
+                monsterInvincibilityTime, UNLIMITED_RESIDENT_LEVELS, false, OffscreenPolicy.FULL, false, newSeed());
+    }
+
+    // A seed for a game that does not need to be reproduced
+    public static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
 }
@@ -4,46 +4,49 @@
 
 package fr.ubx.poo.ubomb.game;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public enum Direction {
-    UP {
-        @Override
-        public Position nextPosition(Position pos, int delta) {
-            return new Position(pos.x(), pos.y() - delta);
-        }
-    },
-    RIGHT {
-        @Override
-        public Position nextPosition(Position pos, int delta) {
-            return new Position(pos.x() + delta, pos.y());
-        }
-    },
-    DOWN {
-        @Override
-        public Position nextPosition(Position pos, int delta) {
-            return new Position(pos.x(), pos.y() + delta);
-        }
-    },
-    LEFT {
-        @Override
-        public Position nextPosition(Position pos, int delta) {
-            return new Position(pos.x() - delta, pos.y());
-        }
-    },
+    UP(0, -1),
+    RIGHT(1, 0),
+    DOWN(0, 1),
+    LEFT(-1, 0),
     ;
 
-    private static final Random randomGenerator = new Random();
+    private static final Direction[] directions = values(); // values() clones the array on each call
 
-    public static Direction random() {
-        int i = randomGenerator.nextInt(values().length);
-        return values()[i];
+    private final int dx;
+    private final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public static Direction random(SplittableRandom random) {
+        int i = random.nextInt(directions.length);
+        return directions[i];
+    }
+
+    public int dx() {
+        return dx;
     }
 
-    public abstract Position nextPosition(Position pos, int delta);
+    public int dy() {
+        return dy;
+    }
+
+    public Position nextPosition(Position pos, int delta) {
+        return new Position(pos.x() + dx * delta, pos.y() + dy * delta);
+    }
 
     public Position nextPosition(Position pos) {
         return nextPosition(pos, 1);
     }
 
+    // Neighbour interned by the grid, no allocation when it is inside the grid
+    public Position nextPosition(Grid grid, Position pos) {
+        return grid.position(pos.x() + dx, pos.y() + dy);
+    }
+
 }
\ No newline at end of file
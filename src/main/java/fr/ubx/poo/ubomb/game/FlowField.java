@@ -0,0 +1,94 @@
+package fr.ubx.poo.ubomb.game;
+
+import java.util.Arrays;
+
+/**
+ * Distances to a target over the cells walkable by the monsters, computed by a breadth first search.
+ * A single field is shared by every monster of the level: it is only computed again when the target
+ * moves to another cell or a cell of the grid changes, then each monster reads its next step in O(1).
+ */
+public class FlowField implements GridListener {
+
+    private static final Direction[] directions = Direction.values();
+
+    private final Grid grid;
+    private final int[] distances; // -1 when the target cannot be reached
+    private final int[] queue;
+    private int targetX = -1;
+    private int targetY = -1;
+    private boolean dirty = true;
+    private long computations;
+
+    public FlowField(Grid grid) {
+        this.grid = grid;
+        this.distances = new int[grid.width() * grid.height()];
+        this.queue = new int[grid.width() * grid.height()];
+        grid.addListener(this);
+    }
+
+    @Override
+    public void cellChanged(Position position) {
+        dirty = true;
+    }
+
+    /**
+     * @param from   The cell of the monster.
+     * @param target The cell to reach, it is always part of the field even if a monster cannot walk on it.
+     * @return The direction of the neighbour closest to the target, null if the target cannot be reached.
+     */
+    public Direction direction(Position from, Position target) {
+        if (dirty || target.x() != targetX || target.y() != targetY)
+            compute(target.x(), target.y());
+        int distance = distance(from.x(), from.y());
+        Direction best = null;
+        for (Direction direction : directions) {
+            int next = distance(from.x() + direction.dx(), from.y() + direction.dy());
+            if (next >= 0 && (distance < 0 || next < distance)) {
+                distance = next;
+                best = direction;
+            }
+        }
+        return best;
+    }
+
+    private int distance(int x, int y) {
+        return grid.inside(x, y) ? distances[y * grid.width() + x] : -1;
+    }
+
+    private void compute(int x, int y) {
+        int width = grid.width();
+        Arrays.fill(distances, -1);
+        targetX = x;
+        targetY = y;
+        dirty = false;
+        computations++;
+        if (!grid.inside(x, y))
+            return;
+        int head = 0;
+        int tail = 0;
+        distances[y * width + x] = 0;
+        queue[tail++] = y * width + x;
+        while (head < tail) {
+            int cell = queue[head++];
+            int cx = cell % width;
+            int cy = cell / width;
+            for (Direction direction : directions) {
+                int nx = cx + direction.dx();
+                int ny = cy + direction.dy();
+                if (grid.walkableByMonster(nx, ny) && distances[ny * width + nx] < 0) {
+                    distances[ny * width + nx] = distances[cell] + 1;
+                    queue[tail++] = ny * width + nx;
+                }
+            }
+        }
+    }
+
+    // Number of searches run since the creation of the field
+    public long getComputations() {
+        return computations;
+    }
+
+    public void remove() {
+        grid.removeListener(this);
+    }
+}
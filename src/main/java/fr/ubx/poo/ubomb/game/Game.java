@@ -1,76 +1,202 @@
 package fr.ubx.poo.ubomb.game;
 
+import fr.ubx.poo.ubomb.engine.TimerWheel;
 import fr.ubx.poo.ubomb.go.GameObject;
+import fr.ubx.poo.ubomb.go.character.Character;
 import fr.ubx.poo.ubomb.go.character.Monster;
+import fr.ubx.poo.ubomb.go.character.MonsterStore;
 import fr.ubx.poo.ubomb.go.character.Player;
 import fr.ubx.poo.ubomb.go.decor.Decor;
-import fr.ubx.poo.ubomb.go.decor.door.Door;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import fr.ubx.poo.ubomb.go.decor.Bomb;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class Game {
-    private ArrayList<Grid> levels;
+    // Built levels, null until the level is first entered or once it has been evicted
+    private final Grid[] levels;
+    // Maps the levels are built from, the saved state of a level replaces its source on eviction
+    private final List<Supplier<MapLevel>> sources;
+    private final Function<MapLevel, Grid> gridFactory;
+    private final boolean[] evicted;
+    private final long[] lastEntered;
+    private long entries;
     private final Configuration configuration;
+    private final TimerWheel timers = new TimerWheel();
+    private final BlastResolver blasts = new BlastResolver(this);
     private final Player player;
-    private final ArrayList<Monster> monsters;
+    // Monsters of every level, those of an evicted level keep their state in it
+    private final MonsterStore monsterStore = new MonsterStore();
     private Grid grid; // final
+    private FlowField flowField; // Of the current level, created on demand
+    private final BlastRays[] blastRays; // Of each resident level, created on its first blast
+    // Independent random stream of each level, split from the seed of the configuration
+    private final SplittableRandom[] randoms;
     private int gridNumber;
     private boolean gridNeedUpdate;
 
     private int lastGridNumberChange;
 
     public Game(Configuration configuration, Grid grid) {
-        this.configuration = configuration;
-        this.grid = grid;
-        this.gridNumber = 0;
-        this.levels = new ArrayList<>();
-        this.levels.add(grid);
-        monsters = new ArrayList<>();
-        player = new Player(this, configuration.playerPosition());
-        setupMonsters();
+        this(configuration, List.of(grid));
     }
 
+    // Levels already built, they are only rebuilt (as array grids) if evicted
     public Game(Configuration configuration, List<Grid> levels) {
+        this(configuration, levels.size(), ArrayLevel::new);
+        for (int i = 0; i < levels.size(); i++) {
+            sources.add(null);
+            this.levels[i] = levels.get(i);
+            setupMonsters(i);
+        }
+        start();
+    }
+
+    /**
+     * Game whose levels are built on first entry.
+     *
+     * @param sources     The maps of the levels, only decoded when the level is built.
+     * @param gridFactory The grid implementation used to build a level from its map.
+     */
+    public Game(Configuration configuration, List<Supplier<MapLevel>> sources, Function<MapLevel, Grid> gridFactory) {
+        this(configuration, sources.size(), gridFactory);
+        this.sources.addAll(sources);
+        start();
+    }
+
+    private Game(Configuration configuration, int levelCount, Function<MapLevel, Grid> gridFactory) {
         this.configuration = configuration;
+        this.levels = new Grid[levelCount];
+        this.sources = new ArrayList<>(levelCount);
+        this.gridFactory = gridFactory;
+        this.lastEntered = new long[levelCount];
+        this.evicted = new boolean[levelCount];
+        this.blastRays = new BlastRays[levelCount];
+        this.randoms = new SplittableRandom[levelCount];
+        SplittableRandom random = new SplittableRandom(configuration.seed());
+        for (int i = 0; i < levelCount; i++)
+            randoms[i] = random.split();
+        this.player = new Player(this, configuration.playerPosition());
+    }
+
+    private void start() {
         this.gridNumber = 0;
-        this.grid = levels.get(0);
-        this.levels = new ArrayList<>(levels);
-        player = new Player(this, configuration.playerPosition());
-        monsters = new ArrayList<>();
-        setupMonsters();
+        this.grid = getGrid(0);
+        this.grid.addCharacter(player);
+        lastEntered[0] = ++entries;
     }
 
-    private void setupMonsters() {
-        for (int i = 0; i < levels.size(); i++) {
-            for (Position mp : levels.get(i).getMonstersPositions()) {
-                Monster monster = new Monster(this,mp);
-                monster.setup(i);
-                monsters.add(monster);
+    private void setupMonsters(int level) {
+        for (Position mp : levels[level].getMonstersPositions()) {
+            Monster monster = new Monster(this, mp, level);
+            levels[level].addCharacter(monster);
+        }
+    }
+
+    private Grid build(int level) {
+        Grid built = gridFactory.apply(sources.get(level).get());
+        levels[level] = built;
+        if (!evicted[level]) {
+            setupMonsters(level);
+        } else { // Back with the state they had on eviction
+            for (Monster monster : monsterStore.onLevel(level))
+                built.addCharacter(monster);
+        }
+        evictLevels();
+        return built;
+    }
+
+    // Evict the least recently entered levels beyond the cap, except the current one and those with a ticking bomb
+    private void evictLevels() {
+        int resident = 0;
+        for (Grid level : levels)
+            if (level != null)
+                resident++;
+        boolean[] kept = new boolean[levels.length];
+        while (resident > configuration.maxResidentLevels()) {
+            int victim = -1;
+            for (int i = 0; i < levels.length; i++) {
+                if (levels[i] != null && i != gridNumber && !kept[i] && !hasBomb(i)
+                        && (victim < 0 || lastEntered[i] < lastEntered[victim]))
+                    victim = i;
             }
+            if (victim < 0)
+                return; // Every other level is in use
+            if (evict(victim))
+                resident--;
+            else
+                kept[victim] = true;
         }
     }
 
+    private boolean hasBomb(int level) {
+        for (Bomb bomb : player.getBombs())
+            if (bomb.getGridNumber() == level)
+                return true;
+        return false;
+    }
+
+    /**
+     * Save the decors of a level as a map and drop the grid, its monsters wait in the store until it is built again.
+     *
+     * @return false if a decor cannot be saved as an entity, the level then stays resident.
+     */
+    private boolean evict(int level) {
+        MapLevel saved = levels[level].save();
+        if (saved == null)
+            return false;
+        sources.set(level, () -> saved);
+        if (blastRays[level] != null) {
+            blastRays[level].remove();
+            blastRays[level] = null;
+        }
+        levels[level] = null;
+        evicted[level] = true;
+        return true;
+    }
+
+    // Every timer of the game: fuses, invincibility, monster moves
+    public TimerWheel timers() {
+        return timers;
+    }
+
+    // Bombs going off in the current tick
+    public BlastResolver blasts() {
+        return blasts;
+    }
+
     public Configuration configuration() {
         return configuration;
     }
 
     // Returns the player, monsters and bomb at a given position
     public List<GameObject> getGameObjects(Position position) {
-        List<GameObject> gos = new LinkedList<>();
-        if (player().getPosition().equals(position))
-            gos.add(player);
-        for (Monster monster : monsters) {
-            if (monster.getPosition().equals(position) && isOnSameGrid(monster.getGridNumber()))
-                gos.add(monster);
-        }
-        if (grid.get(position) != null)
-            gos.add(grid.get(position));
+        List<GameObject> gos = new ArrayList<>(grid.getCharacters(position));
+        Decor decor = grid.get(position);
+        if (decor != null)
+            gos.add(decor);
         return gos;
     }
 
-    public ArrayList<Monster> monster() { return this.monsters; }
+    // Returns the player and monsters at a given position of the current level, without allocation
+    public List<Character> getCharacters(Position position) {
+        return grid.getCharacters(position);
+    }
+
+    // Every monster, including those of the evicted levels
+    public List<Monster> monster() { return monsterStore.all(); }
+
+    // Monsters of a level, none if the level is not resident
+    public List<Monster> monsters(int level) {
+        return levels[level] != null ? monsterStore.onLevel(level) : List.of();
+    }
+
+    public MonsterStore monsterStore() {
+        return monsterStore;
+    }
 
     /**
      * Trigger the level change logic by notifying the GameEngine that the grid will change,
@@ -89,7 +215,14 @@ public class Game {
      * Update the current grid and set the player position to the door that has the opposite modifier on the next level
      */
     public void updateGridForNewLevel() {
-        grid = levels.get(gridNumber);
+        grid.removeCharacter(player);
+        if (flowField != null) {
+            flowField.remove();
+            flowField = null;
+        }
+        grid = getGrid(gridNumber);
+        grid.addCharacter(player);
+        lastEntered[gridNumber] = ++entries;
     }
 
     public int getGridNumber() {
@@ -102,21 +235,51 @@ public class Game {
 
     public void gridUpdated() {
         this.gridNeedUpdate = false;
-        player.setPosition(grid.values().stream()
-                .filter(v -> v instanceof Door && (((Door) v).getLevelModifier() == -lastGridNumberChange))
-                .map(v -> v.getPosition())
-                .findFirst()
-                .orElse(configuration.playerPosition()));
+        Position door = grid.door(-lastGridNumberChange);
+        player.setPosition(door != null ? door : configuration.playerPosition());
     }
 
+    // The level is built if it is not resident
     public Grid getGrid(int level) {
-        return levels.get(level);
+        Grid built = levels[level];
+        return built != null ? built : build(level);
+    }
+
+    // The level if it is resident, null otherwise
+    public Grid getResidentGrid(int level) {
+        return levels[level];
+    }
+
+    public int levelCount() {
+        return levels.length;
     }
 
     public Grid grid() {
         return grid;
     }
 
+    /**
+     * @return The direction that brings a monster of the current level closer to the player,
+     * null if the player cannot be reached.
+     */
+    public Direction chase(Position from) {
+        if (flowField == null)
+            flowField = new FlowField(grid);
+        return flowField.direction(from, player.getPosition());
+    }
+
+    // Distances to the tiles stopping or attenuating the blasts on a level, kept up to date with its decors
+    public BlastRays blastRays(int level) {
+        if (blastRays[level] == null)
+            blastRays[level] = new BlastRays(getGrid(level));
+        return blastRays[level];
+    }
+
+    // The monsters of the level split their own stream from it, in the order they are created
+    public SplittableRandom random(int level) {
+        return randoms[level];
+    }
+
     public Player player() {
         return this.player;
     }
@@ -1,7 +1,9 @@
 package fr.ubx.poo.ubomb.game;
 
 
+import fr.ubx.poo.ubomb.go.character.Character;
 import fr.ubx.poo.ubomb.go.decor.Decor;
+import fr.ubx.poo.ubomb.launcher.MapLevel;
 
 import java.util.*;
 
@@ -9,15 +11,60 @@ public interface Grid {
     int width();
     int height();
 
+    // Shared instance of the position, a new one is only built outside the grid
+    Position position(int x, int y);
+
     Decor get(Position position);
 
+    Decor get(int x, int y);
+
     void remove(Position position);
 
+    void remove(int x, int y);
+
     Collection<Decor> values();
 
+    // The decors already created, unlike values() it does not create those the grid keeps as entities
+    Collection<Decor> createdValues();
+
+    // Position of a door changing the level by the modifier, null if there is none
+    Position door(int levelModifier);
+
+    // The decors as a map, null if one of them cannot be written as an entity
+    MapLevel save();
+
     boolean inside(Position nextPos);
 
+    boolean inside(int x, int y);
+
     void set(Position position, Decor decor);
 
+    void set(int x, int y, Decor decor);
+
+    // The state of a decor of the grid changed, its layers are computed again and the listeners notified
+    void refresh(Decor decor);
+
     ArrayList<Position> getMonstersPositions();
+
+    // Single bit tests kept up to date with the decors, false outside the grid
+    boolean walkableByPlayer(int x, int y); // Empty, bonus, bomb or opened door, boxes are not included
+
+    boolean walkableByMonster(int x, int y);
+
+    boolean stopsExplosion(int x, int y);
+
+    boolean attenuatesExplosion(int x, int y); // Box
+
+    // Characters standing on a cell, an empty list if there is none. The list belongs to the grid, do not modify it.
+    List<Character> getCharacters(Position position);
+
+    void addCharacter(Character character);
+
+    void removeCharacter(Character character);
+
+    void moveCharacter(Character character, Position from, Position to);
+
+    void addListener(GridListener listener);
+
+    void removeListener(GridListener listener);
 }
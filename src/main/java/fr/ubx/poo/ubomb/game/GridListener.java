@@ -0,0 +1,6 @@
+package fr.ubx.poo.ubomb.game;
+
+// Notified when the decor of a grid cell changes (set, removed or modified in place)
+public interface GridListener {
+    void cellChanged(Position position);
+}
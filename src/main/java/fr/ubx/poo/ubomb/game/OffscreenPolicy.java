@@ -0,0 +1,14 @@
+package fr.ubx.poo.ubomb.game;
+
+// How the monsters of the levels the player is not on are simulated
+public enum OffscreenPolicy {
+    FULL,         // Moving like on the current level
+    SUSPENDED,    // Frozen until the player comes back
+    COARSE,       // Moving a few times less often
+    FAST_FORWARD; // Frozen, then the missed moves are replayed when the player comes back
+
+    // Name as written in the world file, case insensitive
+    public static OffscreenPolicy fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
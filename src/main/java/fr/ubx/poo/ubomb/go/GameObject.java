@@ -8,11 +8,15 @@ import fr.ubx.poo.ubomb.game.Game;
 import fr.ubx.poo.ubomb.game.Position;
 import fr.ubx.poo.ubomb.go.character.Player;
 
+import java.util.function.Consumer;
+
 public abstract class GameObject implements Walkable, Takeable {
     public final Game game;
     private boolean deleted = false;
     private boolean modified = true;
     private Position position;
+    private Consumer<GameObject> removalListener;
+    private Consumer<GameObject> modificationListener;
 
     public GameObject(Game game, Position position) {
         this.game = game;
@@ -38,6 +42,8 @@ public abstract class GameObject implements Walkable, Takeable {
 
     public void setModified(boolean modified) {
         this.modified = modified;
+        if (modified && modificationListener != null)
+            modificationListener.accept(this);
     }
 
     public boolean isDeleted() {
@@ -46,6 +52,18 @@ public abstract class GameObject implements Walkable, Takeable {
 
     public void remove() {
         deleted = true;
+        if (removalListener != null)
+            removalListener.accept(this);
+    }
+
+    // Notified when the object is removed from the game, a single listener (the renderer) is kept
+    public void setRemovalListener(Consumer<GameObject> removalListener) {
+        this.removalListener = removalListener;
+    }
+
+    // Notified when the object needs to be drawn again, a single listener (the renderer) is kept
+    public void setModificationListener(Consumer<GameObject> modificationListener) {
+        this.modificationListener = modificationListener;
     }
 
     public void explode() {
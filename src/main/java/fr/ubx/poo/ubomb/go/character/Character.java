@@ -3,6 +3,7 @@ package fr.ubx.poo.ubomb.go.character;
 import fr.ubx.poo.ubomb.engine.Timer;
 import fr.ubx.poo.ubomb.game.Direction;
 import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Grid;
 import fr.ubx.poo.ubomb.game.Position;
 import fr.ubx.poo.ubomb.go.GameObject;
 import fr.ubx.poo.ubomb.go.Movable;
@@ -18,28 +19,60 @@ public abstract class Character extends GameObject implements Movable {
     }
 
     public void damageHandler(long time) {
-        if(invicibilityTimer == null) {
-            invicibilityTimer = new Timer(time);
-            invicibilityTimer.start();
-            lives -= 1;
-            if(lives <= 0) {
+        if(!isDeleted() && !isInvincible()) {
+            startInvincibility(time);
+            setModified(true);
+            if(loseLife() <= 0) {
                 remove();
             }
         }
     }
 
-    public void update(long now) {
-        if(invicibilityTimer != null && invicibilityTimer.isRunning()) {
-            invicibilityTimer.update(now);
-            setModified(true);
-        } else if (invicibilityTimer != null){
-            invicibilityTimer = null;
-            setModified(true);
-        }
+    protected void startInvincibility(long time) {
+        invicibilityTimer = new Timer(game.timers(), time, this::invincibilityEnded);
+        invicibilityTimer.start();
+    }
+
+    private void invincibilityEnded() {
+        invicibilityTimer = null;
+        setModified(true);
     }
 
+    // Returns the lives left
+    protected int loseLife() {
+        return --lives;
+    }
+
+    public boolean isInvincible() {
+        return invicibilityTimer != null;
+    }
+
+    public void update(long now) {}
+
     public void damage() {}
 
+    // Grid whose occupancy index holds the character
+    protected abstract Grid grid();
+
+    // Cell the character is indexed at in the occupancy of its grid
+    protected Position occupiedCell() {
+        return getPosition();
+    }
+
+    @Override
+    public void setPosition(Position position) {
+        grid().moveCharacter(this, occupiedCell(), position);
+        super.setPosition(position);
+    }
+
+    @Override
+    public void remove() {
+        super.remove();
+        if (invicibilityTimer != null)
+            invicibilityTimer.cancel();
+        grid().removeCharacter(this);
+    }
+
     public Timer getInvicibilityTimer() {
         return invicibilityTimer;
     }
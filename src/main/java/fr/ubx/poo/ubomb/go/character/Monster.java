@@ -3,73 +3,163 @@ package fr.ubx.poo.ubomb.go.character;
 import fr.ubx.poo.ubomb.engine.Timer;
 import fr.ubx.poo.ubomb.game.Direction;
 import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Grid;
+import fr.ubx.poo.ubomb.game.OffscreenPolicy;
 import fr.ubx.poo.ubomb.game.Position;
-import fr.ubx.poo.ubomb.go.GameObject;
 import fr.ubx.poo.ubomb.go.Movable;
 import fr.ubx.poo.ubomb.go.Takeable;
 import fr.ubx.poo.ubomb.go.Walkable;
 import fr.ubx.poo.ubomb.go.decor.Decor;
 
 import java.util.List;
+import java.util.SplittableRandom;
 
 public class Monster extends Character implements Movable, Walkable {
 
+    private final MonsterStore store;
+    int index; // In the store, kept up to date by the store, -1 once removed
+    private final int gridNumber;
     private Direction direction;
-    private int gridNumber;
     private boolean revealed;
-    private long lastMovementTime;
-    private boolean movementTimeExceeded;
-
-    public Monster(Game game,Position position) {
+    private long lastMovementTime; // ms
+    private final long moveInterval; // ms between two moves, 0 when the monsters do not move
+    private final Timer moveTimer; // null when the moves are batched by the store or when the monster does not move
+    private Timer invincibilityTimer; // Wakes the sprite at the end of the deadline kept in the store, built on the first hit
+    private final SplittableRandom random; // Own stream, the moves do not depend on the order monsters move in
+
+    // Delay before trying again when the chosen direction is blocked, about a frame
+    private static final long RETRY_DELAY = 16;
+    // With the coarse policy, monsters of the other levels move this many times less often
+    private static final int COARSE_FACTOR = 4;
+
+    public Monster(Game game, Position position, int gridNumber) {
         super(game,position);
+        this.store = game.monsterStore();
+        this.gridNumber = gridNumber;
+        this.random = game.random(gridNumber).split();
+        int velocity = game.configuration().monsterVelocity();
+        moveInterval = velocity > 0 ? Math.max(1, 10_000 / velocity) : 0; // A null velocity keeps them still
         direction = Direction.DOWN;
         revealed = false;
-        lives = 1;
+        int lives = 1;
+        if(gridNumber % 2 == 0) {
+            lives = (gridNumber / 2) + 1;
+        } else if(gridNumber == 0) {
+            reveal();
+        }
+        index = store.add(this, position.x(), position.y(), gridNumber, lives);
+        if (game.configuration().batchMonsterMoves() || moveInterval == 0) {
+            moveTimer = null;
+        } else {
+            moveTimer = new Timer(game.timers(), moveInterval, this::moveDue);
+        }
+        scheduleMove(moveInterval);
     }
 
     @Override
     public boolean canMove(Direction direction) {
-        Position nextPos = direction.nextPosition(getPosition());
-        GameObject next = game.getGrid(gridNumber).get(nextPos);
-
-        return movementTimeExceeded
-                && revealed
-                && (next == null || next.walkableBy(this))
-                && game.getGrid(gridNumber).inside(nextPos);
+        if (isDeleted())
+            return false;
+        int x = store.x(index) + direction.dx();
+        int y = store.y(index) + direction.dy();
+        return revealed && grid().walkableByMonster(x, y);
     }
 
     @Override
     public void doMove(Direction direction) {
-        Position nextPos = direction.nextPosition(getPosition());
-        setPosition(nextPos);
+        setPosition(grid().position(store.x(index) + direction.dx(), store.y(index) + direction.dy()));
         setModified(true);
     }
 
-    public void setup(int gridNumber) {
-        this.gridNumber = gridNumber;
-        if(gridNumber % 2 == 0) {
-            lives = (gridNumber / 2) + 1;
-        } else if(gridNumber == 0) {
-            reveal();
-        }
+    // The store holds the cell, the position only follows it for the sprites
+    @Override
+    public void setPosition(Position position) {
+        super.setPosition(position);
+        store.setCell(index, position.x(), position.y());
     }
 
     @Override
-    public void update(long now) {
-        super.update(now);
-        if(game.isOnSameGrid(gridNumber) && !revealed) {
+    protected Position occupiedCell() {
+        if (isDeleted()) // Last cell, the slot belongs to another monster
+            return getPosition();
+        return grid().position(store.x(index), store.y(index));
+    }
+
+    // Run by the move timer or the store, no move is scheduled while the level of the monster is not simulated, see resume
+    void moveDue() {
+        boolean current = game.isOnSameGrid(gridNumber);
+        OffscreenPolicy policy = game.configuration().offscreenPolicy();
+        if (!current && (game.getResidentGrid(gridNumber) == null
+                || policy == OffscreenPolicy.SUSPENDED || policy == OffscreenPolicy.FAST_FORWARD))
+            return;
+        if (current && !revealed) {
             reveal();
         }
-        movementTimeExceeded = now >= lastMovementTime + (Math.pow(10,10) / game.configuration().monsterVelocity());
-        Direction tmp = Direction.random();
+        if (!revealed)
+            return; // Until the player enters the level
+        if (move()) {
+            scheduleMove(current || policy != OffscreenPolicy.COARSE ? moveInterval : moveInterval * COARSE_FACTOR);
+        } else {
+            scheduleMove(RETRY_DELAY);
+        }
+    }
+
+    private void scheduleMove(long delay) {
+        if (moveInterval == 0) // Never due
+            store.setNextMove(index, Long.MAX_VALUE);
+        else if (moveTimer != null)
+            moveTimer.start(delay);
+        else
+            store.setNextMove(index, game.timers().now() + delay);
+    }
+
+    private boolean moveScheduled() {
+        return moveTimer != null ? moveTimer.isRunning() : store.nextMove(index) > game.timers().now();
+    }
+
+    private boolean move() {
+        Direction tmp = nextDirection();
         if (canMove(tmp)) {
             doMove(tmp);
-            lastMovementTime = now;
+            lastMovementTime = game.timers().now();
             direction = tmp;
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Start moving again once the level is simulated, after replaying some of the moves missed meanwhile.
+     *
+     * @param maxMoves Upper bound of the replayed moves, 0 to only resume.
+     */
+    public void resume(int maxMoves) {
+        if (isDeleted() || moveInterval == 0 || moveScheduled())
+            return;
+        // Only a monster that already walked was left behind, one never revealed has no missed moves
+        boolean walked = revealed;
+        if (game.isOnSameGrid(gridNumber))
+            reveal();
+        long missed = walked ? Math.min((game.timers().now() - lastMovementTime) / moveInterval, maxMoves) : 0;
+        for (long i = 0; i < missed; i++) {
+            move();
+        }
+        scheduleMove(moveInterval);
+    }
+
+    // Towards the player when chasing on the player's level, at random otherwise
+    private Direction nextDirection() {
+        if (game.configuration().monsterChase() && game.isOnSameGrid(gridNumber)) {
+            Direction towardsPlayer = game.chase(occupiedCell());
+            if (towardsPlayer != null)
+                return towardsPlayer;
+        }
+        return Direction.random(random);
     }
 
     public void reveal() {
+        if (!revealed) // Missed moves are counted from here, not from the creation of the monster
+            lastMovementTime = game.timers().now();
         revealed = true;
     }
 
@@ -77,6 +167,11 @@ public class Monster extends Character implements Movable, Walkable {
         return gridNumber;
     }
 
+    @Override
+    protected Grid grid() {
+        return game.getGrid(gridNumber);
+    }
+
     @Override
     public void explode() {
         damageHandler(game.configuration().monsterInvincibilityTime());
@@ -91,10 +186,38 @@ public class Monster extends Character implements Movable, Walkable {
         return direction;
     }
 
+    @Override
+    public boolean isInvincible() {
+        return !isDeleted() && store.invincibleUntil(index) > game.timers().now();
+    }
+
+    @Override
+    protected void startInvincibility(long time) {
+        store.setInvincibleUntil(index, game.timers().now() + time);
+        if (invincibilityTimer == null)
+            invincibilityTimer = new Timer(game.timers(), time, () -> setModified(true));
+        invincibilityTimer.start(time);
+    }
+
+    @Override
+    protected int loseLife() {
+        int lives = store.lives(index) - 1;
+        store.setLives(index, lives);
+        return lives;
+    }
+
+    // The slot goes to another monster, so the index is dropped
     @Override
     public void remove() {
+        if (isDeleted())
+            return;
         super.remove();
-        game.monster().remove(this);
+        if (moveTimer != null)
+            moveTimer.cancel();
+        if (invincibilityTimer != null)
+            invincibilityTimer.cancel();
+        store.remove(index);
+        index = -1;
     }
 
     @Override
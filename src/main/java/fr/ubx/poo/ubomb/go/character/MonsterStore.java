@@ -0,0 +1,158 @@
+package fr.ubx.poo.ubomb.go.character;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Monsters of a game stored as parallel arrays of primitives: cell, level, lives, end of invincibility and
+ * next move. A {@link Monster} reads and writes its cell here, its {@link fr.ubx.poo.ubomb.game.Position}
+ * is only kept in step for the sprites; it keeps its direction and random stream.
+ * A removed monster is replaced by the last one, so removal is O(1) and the arrays stay dense,
+ * and a pass over a level only reads the few arrays it needs.
+ */
+public class MonsterStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Monster[] views = new Monster[INITIAL_CAPACITY];
+    private int[] x = new int[INITIAL_CAPACITY];
+    private int[] y = new int[INITIAL_CAPACITY];
+    private int[] level = new int[INITIAL_CAPACITY];
+    private int[] lives = new int[INITIAL_CAPACITY];
+    private long[] invincibleUntil = new long[INITIAL_CAPACITY]; // ms, time of the timer wheel
+    private long[] nextMove = new long[INITIAL_CAPACITY];        // ms, with batched moves only
+    private int size;
+
+    // Returns the index of the new monster
+    int add(Monster monster, int x, int y, int level, int lives) {
+        if (size == views.length)
+            grow();
+        int i = size++;
+        views[i] = monster;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.level[i] = level;
+        this.lives[i] = lives;
+        invincibleUntil[i] = 0;
+        nextMove[i] = 0;
+        return i;
+    }
+
+    // The last monster takes the place of the removed one, the accessors ignore the index -1 of a removed monster
+    void remove(int i) {
+        if (i < 0)
+            return;
+        int last = --size;
+        if (i != last) {
+            views[i] = views[last];
+            x[i] = x[last];
+            y[i] = y[last];
+            level[i] = level[last];
+            lives[i] = lives[last];
+            invincibleUntil[i] = invincibleUntil[last];
+            nextMove[i] = nextMove[last];
+            views[i].index = i;
+        }
+        views[last] = null;
+    }
+
+    private void grow() {
+        int capacity = views.length * 2;
+        views = Arrays.copyOf(views, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        level = Arrays.copyOf(level, capacity);
+        lives = Arrays.copyOf(lives, capacity);
+        invincibleUntil = Arrays.copyOf(invincibleUntil, capacity);
+        nextMove = Arrays.copyOf(nextMove, capacity);
+    }
+
+    /**
+     * Move the monsters whose next move is due, on the simulated levels, in a single pass over the level and
+     * next move arrays. A move tests and updates the cell in the x and y arrays, the grid occupancy is moved
+     * from that cell. Moving never removes a monster, so the indexes do not change during the pass.
+     *
+     * @param now       The time of the timer wheel in ms.
+     * @param simulated The levels whose monsters move, indexed by level.
+     */
+    public void update(long now, boolean[] simulated) {
+        for (int i = 0; i < size; i++) {
+            if (nextMove[i] <= now && simulated[level[i]])
+                views[i].moveDue();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Live view of every monster, in storage order
+    public List<Monster> all() {
+        return new AbstractList<>() {
+            @Override
+            public Monster get(int index) {
+                if (index >= size)
+                    throw new IndexOutOfBoundsException(index);
+                return views[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Monsters of a level, copied so that they can be removed while going through them
+    public List<Monster> onLevel(int level) {
+        List<Monster> monsters = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            if (this.level[i] == level)
+                monsters.add(views[i]);
+        return monsters;
+    }
+
+    int x(int i) {
+        return x[i];
+    }
+
+    int y(int i) {
+        return y[i];
+    }
+
+    void setCell(int i, int x, int y) {
+        if (i < 0)
+            return;
+        this.x[i] = x;
+        this.y[i] = y;
+    }
+
+    int lives(int i) {
+        return i >= 0 ? lives[i] : 0;
+    }
+
+    void setLives(int i, int lives) {
+        if (i >= 0)
+            this.lives[i] = lives;
+    }
+
+    long invincibleUntil(int i) {
+        return i >= 0 ? invincibleUntil[i] : 0;
+    }
+
+    void setInvincibleUntil(int i, long time) {
+        if (i >= 0)
+            invincibleUntil[i] = time;
+    }
+
+    long nextMove(int i) {
+        return i >= 0 ? nextMove[i] : Long.MAX_VALUE; // Never due
+    }
+
+    void setNextMove(int i, long time) {
+        if (i >= 0)
+            nextMove[i] = time;
+    }
+}
@@ -7,11 +7,12 @@ package fr.ubx.poo.ubomb.go.character;
 import fr.ubx.poo.ubomb.engine.Timer;
 import fr.ubx.poo.ubomb.game.Direction;
 import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Grid;
 import fr.ubx.poo.ubomb.game.Position;
-import fr.ubx.poo.ubomb.go.GameObject;
 import fr.ubx.poo.ubomb.go.Movable;
 import fr.ubx.poo.ubomb.go.TakeVisitor;
 import fr.ubx.poo.ubomb.go.decor.Bomb;
+import fr.ubx.poo.ubomb.go.decor.Decor;
 import fr.ubx.poo.ubomb.go.decor.bonus.*;
 import fr.ubx.poo.ubomb.go.decor.door.Door;
 
@@ -28,7 +29,8 @@ public class Player extends Character implements Movable, TakeVisitor {
     private int keys;
     private int bombRange;
     private int bombBag;
-    private boolean bombPlaced;
+    // Bombs placed since the renderer last took them, several can be placed between two frames
+    private final List<Bomb> placedBombs = new ArrayList<>();
     private boolean haveWon = false;
     private ArrayList<Bomb> bombs;
 
@@ -44,18 +46,18 @@ public class Player extends Character implements Movable, TakeVisitor {
     @Override
     public void take(Key key) {
         keys++;
-        key.remove();
+        pickUp(key);
     }
 
     @Override
     public void take(Hearth hearth) {
         lives++;
-        hearth.remove();
+        pickUp(hearth);
     }
 
     @Override
     public void take(Princess princess) {
-        princess.remove();
+        pickUp(princess);
         haveWon = true;
     }
 
@@ -75,7 +77,7 @@ public class Player extends Character implements Movable, TakeVisitor {
         if(bombRange < 1) {
             bombRange = 1;
         }
-        bombRangeModifier.remove();
+        pickUp(bombRangeModifier);
     }
 
     @Override
@@ -84,18 +86,24 @@ public class Player extends Character implements Movable, TakeVisitor {
         if(bombBag < 1) {
             bombBag = 1;
         }
-        bombNumberModifier.remove();
+        pickUp(bombNumberModifier);
+    }
+
+    // Taken bonuses leave the current grid
+    private void pickUp(Bonus bonus) {
+        bonus.remove();
+        game.grid().remove(bonus.getPosition());
     }
 
     public void doMove(Direction direction) {
 
         // This method is called only if the move is possible, do not check again
-        Position nextPos = direction.nextPosition(getPosition());
+        Position nextPos = direction.nextPosition(game.grid(), getPosition());
 
         // Check if the next position is a takeable object
-        List<GameObject> objectList = game.getGameObjects(nextPos);
-        for (GameObject object : objectList) {
-            object.takenBy(this);
+        Decor decor = game.grid().get(nextPos);
+        if (decor != null) {
+            decor.takenBy(this);
         }
         setPosition(nextPos);
     }
@@ -120,12 +128,15 @@ public class Player extends Character implements Movable, TakeVisitor {
         return direction;
     }
 
-    public boolean isBombPlaced() {
-        return bombPlaced;
-    }
-
-    public void bombIsRendered() {
-        bombPlaced = false;
+    /**
+     * @return The bombs placed since the previous call, that have not gone off yet.
+     */
+    public List<Bomb> drainPlacedBombs() {
+        if (placedBombs.isEmpty())
+            return List.of();
+        List<Bomb> placed = new ArrayList<>(placedBombs);
+        placedBombs.clear();
+        return placed;
     }
 
     public ArrayList<Bomb> getBombs() {
@@ -133,6 +144,7 @@ public class Player extends Character implements Movable, TakeVisitor {
     }
 
     public void postExplosionTreatment(Bomb bomb) {
+        placedBombs.remove(bomb); // Never drained when nothing renders the game
         bombBag += 1;
     }
 
@@ -145,20 +157,22 @@ public class Player extends Character implements Movable, TakeVisitor {
     }
 
     public final boolean canMove(Direction direction) {
-        Position nextPos = direction.nextPosition(getPosition());
-        GameObject next = game.grid().get(nextPos);
+        Grid grid = game.grid();
+        int x = getPosition().x() + direction.dx();
+        int y = getPosition().y() + direction.dy();
 
-        if (!game.grid().inside(nextPos)) {
-            return false;
+        if (grid.walkableByPlayer(x, y)) {
+            return true;
         }
 
-        return next==null || next.walkableBy(this);
+        // Only a box can still let the player through, if it can be pushed
+        return grid.attenuatesExplosion(x, y) && grid.get(x, y).walkableBy(this);
     }
 
     public void interactWithDoor() {
-        List<GameObject> object = game.getGameObjects(direction.nextPosition(getPosition()));
-        if(object.size() > 0) {
-            object.get(0).takenBy(this);
+        Decor decor = game.grid().get(direction.nextPosition(game.grid(), getPosition()));
+        if(decor != null) {
+            decor.takenBy(this);
         }
     }
 
@@ -168,7 +182,7 @@ public class Player extends Character implements Movable, TakeVisitor {
             bombs.add(bomb);
             game.grid().set(getPosition(),bomb);
             bombBag -= 1;
-            bombPlaced = true;
+            placedBombs.add(bomb);
         }
     }
 
@@ -188,6 +202,11 @@ public class Player extends Character implements Movable, TakeVisitor {
         damageHandler(game.configuration().playerInvincibilityTime());
     }
 
+    @Override
+    protected Grid grid() {
+        return game.grid();
+    }
+
     public boolean haveWon(){
         return haveWon;
     }
@@ -1,31 +1,30 @@
 package fr.ubx.poo.ubomb.go.decor;
 
 import fr.ubx.poo.ubomb.engine.Timer;
-import fr.ubx.poo.ubomb.game.Direction;
 import fr.ubx.poo.ubomb.game.Game;
 import fr.ubx.poo.ubomb.game.Position;
-import fr.ubx.poo.ubomb.go.GameObject;
 import fr.ubx.poo.ubomb.go.Walkable;
 import fr.ubx.poo.ubomb.go.character.Player;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Bomb extends Decor implements Walkable {
-    private Timer timer;
+    public static final long FUSE = 3000; // ms
+    private final Timer timer;
+    private final Timer countdownTimer;
+    private int countdown; // Seconds shown by the sprite
     private int gridNumber;
     private int range;
     private boolean detonated; // Prevent overflow issue in case of concurrency
 
-    private ArrayList<Position> explosionBounds;
-
     public Bomb(Game game, Position position) {
         super(game, position);
-        timer = new Timer(3000);
+        timer = new Timer(game.timers(), FUSE, this::explode);
         timer.start();
+        // The sprite changes every second
+        countdown = (int) (FUSE / 1000) - 1;
+        countdownTimer = new Timer(game.timers(), 1000, this::countdown);
+        countdownTimer.start();
         range = game.player().getBombRange();
         gridNumber = game.getGridNumber();
-        explosionBounds = new ArrayList<>();
         detonated = false;
     }
 
@@ -33,62 +32,38 @@ public class Bomb extends Decor implements Walkable {
         return timer;
     }
 
-    public int getGridNumber() {
-        return gridNumber;
+    private void countdown() {
+        if (countdown > 0 && !detonated) {
+            countdown--;
+            setModified(true);
+            countdownTimer.start();
+        }
     }
 
-    public ArrayList<Position> getExplosionBounds() {
-        return explosionBounds;
+    public int getCountdown() {
+        return countdown;
     }
 
-    /**
-     * Propagate the shockwave in the specified direction and return the ending position
-     * @param direction The shockwave direction.
-     * @return The shockwave ending position.
-     */
-    private Position propagateExplosion(Direction direction) {
-        Position currentPosition = getPosition();
-        Position previousValidPosition = getPosition();
-        boolean boxEncountered = false;
-        for(int i = 0; i <= range; i++) {
-            if(game.grid().inside(currentPosition)) {
-                Decor currentEncounter = game.getGrid(gridNumber).get(currentPosition);
-                List<GameObject> gameObjects = new ArrayList<>(game.getGameObjects(currentPosition).stream().filter(d -> !(d instanceof Decor)).toList());
-                if(!gameObjects.isEmpty()) { // Player or monster encountered
-                    if(!game.isOnSameGrid(gridNumber)) { // Player is not on same grid
-                        gameObjects.remove(game.player());
-                    }
-                    gameObjects.forEach(go -> go.explode());
-                }
-                if (currentEncounter == null) { // Empty tiles
-                    previousValidPosition = currentPosition;
-                } else if (currentEncounter instanceof Box) { // Box case to attenuate explosion
-                    if(!boxEncountered) {
-                        currentEncounter.explode();
-                        boxEncountered = true;
-                    }
-                    previousValidPosition = currentPosition;
-                } else if (currentEncounter.walkableBy(game.player())) { // Non-Blocking tiles
-                    currentEncounter.explode();
-                    previousValidPosition = currentPosition;
-                } else { // Blocking tiles
-                    currentEncounter.explode();
-                    previousValidPosition = currentPosition;
-                    break;
-                }
-                currentPosition = direction.nextPosition(currentPosition);
-            }
-        }
-        return previousValidPosition;
+    public int getGridNumber() {
+        return gridNumber;
+    }
+
+    public int getRange() {
+        return range;
     }
 
+    // Set off by the fuse or by another bomb, the blast is resolved with the others of the tick
     @Override
     public void explode() {
+        game.blasts().trigger(this);
+    }
+
+    // Called by the blast resolver when the bomb goes off
+    public void detonate() {
         if(!detonated) {
             detonated = true;
-            for (Direction d : Direction.values()) {
-                explosionBounds.add(propagateExplosion(d));
-            }
+            timer.cancel();
+            countdownTimer.cancel();
             game.player().postExplosionTreatment(this);
         }
     }
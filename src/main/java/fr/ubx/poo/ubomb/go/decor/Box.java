@@ -23,24 +23,27 @@ public class Box extends Decor implements Movable, Takeable {
 
     @Override
     public boolean canMove(Direction direction) {
-        Position nextPos = direction.nextPosition(getPosition());
-        if (!game.grid().inside(nextPos)) {
+        int x = getPosition().x() + direction.dx();
+        int y = getPosition().y() + direction.dy();
+        if (!game.grid().inside(x, y)) {
             return false;
         }
-        GameObject next = game.grid().get(nextPos);
+        GameObject next = game.grid().get(x, y);
         return next == null;
     }
 
     @Override
     public void doMove(Direction direction) {
         game.grid().remove(getPosition());
-        this.setPosition(direction.nextPosition(getPosition()));
+        this.setPosition(direction.nextPosition(game.grid(), getPosition()));
         game.grid().set(getPosition(), this);
         this.setModified(true);
     }
 
     @Override
     public void takenBy(Player player) {
-        this.doMove(player.getDirection());
+        // Also reached by the door key, without the walkable check that sets the game
+        if (walkableBy(player))
+            this.doMove(player.getDirection());
     }
 }
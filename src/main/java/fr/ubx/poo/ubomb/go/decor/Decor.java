@@ -1,11 +1,14 @@
 package fr.ubx.poo.ubomb.go.decor;
 
 import fr.ubx.poo.ubomb.game.Game;
+import fr.ubx.poo.ubomb.game.Grid;
 import fr.ubx.poo.ubomb.game.Position;
 import fr.ubx.poo.ubomb.go.GameObject;
 
 public abstract class Decor extends GameObject {
 
+    private Grid grid; // Grid holding the decor, null until it is placed
+
     public Decor(Game game, Position position) {
         super(game, position);
     }
@@ -13,4 +16,16 @@ public abstract class Decor extends GameObject {
     public Decor(Position position) {
         super(position);
     }
+
+    // Set by the grid when the decor is placed in it
+    public void setGrid(Grid grid) {
+        this.grid = grid;
+    }
+
+    // To call when a change of state changes how the decor blocks characters or explosions
+    protected void stateChanged() {
+        setModified(true);
+        if (grid != null)
+            grid.refresh(this);
+    }
 }
\ No newline at end of file
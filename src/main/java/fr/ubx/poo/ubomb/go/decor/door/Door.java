@@ -22,7 +22,7 @@ public class Door extends Decor implements Takeable, Walkable {
 
     public void unlockDoor() {
         locked = false;
-        setModified(true);
+        stateChanged(); // The door becomes walkable
     }
 
     public boolean isLocked() {
@@ -18,6 +18,13 @@ public enum Entity {
     Monster('M'),
     Princess('W');
 
+    private static final Entity[] byCode = new Entity[256]; // Indexed by code, null for the invalid ones
+
+    static {
+        for (Entity entity : values())
+            byCode[entity.code] = entity;
+    }
+
     private final char code;
 
     Entity(char c) {
@@ -27,11 +34,10 @@ public enum Entity {
     public char getCode() { return this.code; }
 
     public static Entity fromCode(char c) {
-        for (Entity entity : values()) {
-            if (entity.code == c)
-                return entity;
-        }
-        throw new MapException("Invalid character " + c);
+        Entity entity = c < byCode.length ? byCode[c] : null;
+        if (entity == null)
+            throw new MapException("Invalid character " + c);
+        return entity;
     }
 
     @Override
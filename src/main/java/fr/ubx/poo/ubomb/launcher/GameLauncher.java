@@ -1,79 +1,146 @@
 package fr.ubx.poo.ubomb.launcher;
 
 import fr.ubx.poo.ubomb.game.*;
-import javafx.beans.property.IntegerProperty;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.Reader;
-import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
-
-import static javafx.beans.property.IntegerProperty.integerProperty;
+import java.util.function.Supplier;
 
 public class GameLauncher {
 
+    // From this number of cells, levels are chunked and their decors created on demand
+    public static final int CHUNKED_LEVEL_CELLS = 512 * 512;
+
+    public static Grid grid(MapLevel mapLevel) {
+        if ((long) mapLevel.width() * mapLevel.height() >= CHUNKED_LEVEL_CELLS)
+            return new ChunkedLevel(mapLevel);
+        return new ArrayLevel(mapLevel);
+    }
+
     public static Game load() {
         Configuration configuration = new Configuration(new Position(0, 0), 3, 5, 4000, 5, 1000);
-        return new Game(configuration, new Level(new MapLevelDefault()));
+        return new Game(configuration, new ArrayLevel(new MapLevelDefault()));
     }
 
     public static Game load(File file) {
-        Properties config = new Properties();
+        return load(file, null);
+    }
+
+    /**
+     * Load a world file, either the properties text format or the binary {@link WorldFile} format.
+     *
+     * @param seed The seed of the random streams, overriding that of the file, null to keep it.
+     */
+    public static Game load(File file, Long seed) {
         Game game = null;
-        int playerLives = 5;
-        int playerInvincibilityTime = 4000;
-        int monsterVelocity = 5;
-        int monsterInvincibilityTime = 1000;
         try {
-            Reader in = new FileReader(file);
-            config.load(in);
-            try {
-                playerLives = Integer.parseInt(config.getProperty("playerLives"));
-            } catch (IllegalArgumentException | NullPointerException e) {
-                System.out.println("playerLives not found, using default value");
-            }
-            try {
-                playerInvincibilityTime = Integer.parseInt(config.getProperty("playerInvincibilityTime"));
-            } catch (IllegalArgumentException | NullPointerException e) {
-                System.out.println("playerInvincibilityTime not found, using default value");
-            }
-            try {
-                monsterVelocity = Integer.parseInt(config.getProperty("monsterVelocity"));
-            } catch (IllegalArgumentException | NullPointerException e) {
-                System.out.println("monsterVelocity not found, using default value");
-            }
-            try {
-                monsterInvincibilityTime = Integer.parseInt(config.getProperty("monsterInvincibilityTime"));
-            } catch (IllegalArgumentException | NullPointerException e) {
-                System.out.println("monsterInvincibilityTime not found, using default value");
-            }
-            Configuration configuration = new Configuration(
-                    new Position(config.getProperty("player")),
-                    3,
-                    playerLives,
-                    playerInvincibilityTime,
-                    monsterVelocity,
-                    monsterInvincibilityTime);
-            int nbLevel = Integer.parseInt(config.getProperty("levels"));
-            ArrayList<Grid> levels = new ArrayList<>();
-            if(Boolean.parseBoolean(config.getProperty("compression"))){
-                for(int i = 1; i <= nbLevel; i++) {
-                    levels.add(new Level(MapLevelFileRLE.getInstance().load(config.getProperty("level"+i))));
-                }
+            if (WorldFile.isWorldFile(file)) {
+                WorldFile world = WorldFile.open(file);
+                game = new Game(world.configuration(seed), world.levels(), GameLauncher::grid);
             } else {
-                for(int i = 1; i <= nbLevel; i++) {
-                    levels.add(new Level(MapLevelFile.getInstance().load(config.getProperty("level"+i))));
-                }
+                Properties config = properties(file);
+                game = new Game(configuration(config, seed), levels(config), GameLauncher::grid);
             }
-
-            game = new Game(configuration,levels);
-
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
         return game;
     }
+
+    static Properties properties(File file) throws IOException {
+        Properties config = new Properties();
+        try (Reader in = new FileReader(file)) {
+            config.load(in);
+        }
+        return config;
+    }
+
+    /**
+     * @param seed The seed of the random streams, overriding that of the properties, null to keep it.
+     */
+    static Configuration configuration(Properties config, Long seed) {
+        int playerLives = 5;
+        int playerInvincibilityTime = 4000;
+        int monsterVelocity = 5;
+        int monsterInvincibilityTime = 1000;
+        int maxResidentLevels = Configuration.UNLIMITED_RESIDENT_LEVELS;
+        boolean monsterChase = false;
+        OffscreenPolicy offscreenPolicy = OffscreenPolicy.FULL;
+        boolean batchMonsterMoves = false;
+        try {
+            playerLives = Integer.parseInt(config.getProperty("playerLives"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.out.println("playerLives not found, using default value");
+        }
+        try {
+            playerInvincibilityTime = Integer.parseInt(config.getProperty("playerInvincibilityTime"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.out.println("playerInvincibilityTime not found, using default value");
+        }
+        try {
+            monsterVelocity = Integer.parseInt(config.getProperty("monsterVelocity"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.out.println("monsterVelocity not found, using default value");
+        }
+        try {
+            monsterInvincibilityTime = Integer.parseInt(config.getProperty("monsterInvincibilityTime"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.out.println("monsterInvincibilityTime not found, using default value");
+        }
+        // Optional, every level stays built by default
+        if (config.getProperty("maxResidentLevels") != null) {
+            maxResidentLevels = Integer.parseInt(config.getProperty("maxResidentLevels"));
+        }
+        // Optional, monsters wander at random by default
+        if (config.getProperty("monsterChase") != null) {
+            monsterChase = Boolean.parseBoolean(config.getProperty("monsterChase"));
+        }
+        // Optional, the other levels are fully simulated by default
+        if (config.getProperty("offscreenPolicy") != null) {
+            offscreenPolicy = OffscreenPolicy.fromName(config.getProperty("offscreenPolicy"));
+        }
+        // Optional, each monster has its own move timer by default
+        if (config.getProperty("batchMonsterMoves") != null) {
+            batchMonsterMoves = Boolean.parseBoolean(config.getProperty("batchMonsterMoves"));
+        }
+        // Optional, a new game each time by default
+        if (seed == null) {
+            seed = config.getProperty("seed") != null
+                    ? Long.parseLong(config.getProperty("seed"))
+                    : Configuration.newSeed();
+        }
+        return new Configuration(
+                new Position(config.getProperty("player")),
+                3,
+                playerLives,
+                playerInvincibilityTime,
+                monsterVelocity,
+                monsterInvincibilityTime,
+                maxResidentLevels,
+                monsterChase,
+                offscreenPolicy,
+                batchMonsterMoves,
+                seed);
+    }
+
+    // The level strings are only decoded when the player first enters the level
+    static List<Supplier<MapLevel>> levels(Properties config) {
+        int nbLevel = Integer.parseInt(config.getProperty("levels"));
+        MapRepo repo = Boolean.parseBoolean(config.getProperty("compression"))
+                ? MapLevelFileRLE.getInstance()
+                : MapLevelFile.getInstance();
+        List<Supplier<MapLevel>> levels = new ArrayList<>();
+        for(int i = 1; i <= nbLevel; i++) {
+            String level = config.getProperty("level"+i);
+            if (level == null)
+                throw new MapException("level" + i + " not found");
+            levels.add(() -> repo.load(level));
+        }
+        return levels;
+    }
 }
@@ -1,15 +1,25 @@
 package fr.ubx.poo.ubomb.launcher;
 
+// Entities of a level, one byte per cell (the ordinal of the entity) to keep large maps affordable
 public class MapLevel {
 
+    private static final Entity[] entities = Entity.values();
+
     private final int width;
     private final int height;
-    private final Entity[][] grid;
+    private final byte[] grid;
 
     public MapLevel(int width, int height) {
         this.width = width;
         this.height = height;
-        this.grid = new Entity[height][width];
+        this.grid = new byte[width * height]; // Empty everywhere
+    }
+
+    // Level over the ordinals of its entities, row after row
+    MapLevel(int width, int height, byte[] grid) {
+        this.width = width;
+        this.height = height;
+        this.grid = grid;
     }
 
     public int width() {
@@ -20,11 +30,11 @@ public class MapLevel {
     }
 
     public Entity get(int i, int j) {
-        return grid[j][i];
+        return entities[grid[j * width + i]];
     }
 
     public void set(int i, int j, Entity entity) {
-        grid[j][i] = entity;
+        grid[j * width + i] = (byte) entity.ordinal();
     }
 
 }
@@ -1,10 +1,13 @@
 package fr.ubx.poo.ubomb.launcher;
 
 import java.util.Arrays;
+
 public class MapLevelFile implements MapRepo{
 
     private final static MapLevelFile instance = new MapLevelFile();
 
+    static final char ROW_SEPARATOR = 'x';
+
     private MapLevelFile() {}
 
     public static MapLevelFile getInstance() {
@@ -13,25 +16,87 @@ public class MapLevelFile implements MapRepo{
 
     @Override
     public MapLevel load(String string) {
-        String[] split = string.split("x");
-        int width = Arrays.stream(split).mapToInt(i -> i.length()).max().getAsInt();
-        int height = split.length;
-
-
+        return decode(string, false);
+    }
 
-        MapLevel level = new MapLevel(width,height);
+    @Override
+    public String export(MapLevel mapLevel) {
+        StringBuilder sb = new StringBuilder(mapLevel.height() * (mapLevel.width() + 1));
+        for (int y = 0; y < mapLevel.height(); y++) {
+            if (y > 0)
+                sb.append(ROW_SEPARATOR);
+            for (int x = 0; x < mapLevel.width(); x++)
+                sb.append(mapLevel.get(x, y).getCode());
+        }
+        return sb.toString();
+    }
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                level.set(x,y,Entity.fromCode(split[y].charAt(x)));
+    /**
+     * Decode a level in a single pass over the string, the entities being written as they are read.
+     * Rows are separated by 'x', a trailing separator is allowed. With runs, a code may be followed by
+     * its number of repetitions, of any number of digits.
+     *
+     * @param runs true for the RLE form, false if digits are invalid codes.
+     */
+    static MapLevel decode(String string, boolean runs) {
+        int length = string.length();
+        byte[] grid = new byte[runs ? Math.max(16, 2 * length) : length];
+        int cells = 0;
+        int width = -1;
+        int height = 0;
+        int rowStart = 0;
+        int last = -1; // Ordinal of the previous code, while its run length can follow
+        int i = 0;
+        while (i < length) {
+            char c = string.charAt(i++);
+            if (c == ROW_SEPARATOR) {
+                width = checkRow(cells - rowStart, width, height);
+                height++;
+                rowStart = cells;
+                last = -1;
+            } else if (runs && c >= '0' && c <= '9') {
+                if (last < 0)
+                    throw new MapException("Run length without a code at " + (i - 1));
+                long count = c - '0';
+                while (i < length && (c = string.charAt(i)) >= '0' && c <= '9') {
+                    count = count * 10 + (c - '0');
+                    if (count > Integer.MAX_VALUE)
+                        throw new MapException("Run length too large at " + i);
+                    i++;
+                }
+                if (count == 0)
+                    throw new MapException("Empty run at " + (i - 1));
+                int end = cells + (int) count - 1; // The code itself is already written
+                if (end < 0)
+                    throw new MapException("Level too large");
+                if (end > grid.length)
+                    grid = Arrays.copyOf(grid, Math.max(end, grid.length * 2));
+                Arrays.fill(grid, cells, end, (byte) last);
+                cells = end;
+                last = -1;
+            } else {
+                Entity entity = Entity.fromCode(c);
+                if (cells == grid.length)
+                    grid = Arrays.copyOf(grid, grid.length * 2);
+                grid[cells++] = (byte) entity.ordinal();
+                last = entity.ordinal();
             }
         }
-
-        return level;
+        if (cells > rowStart || height == 0) { // Unless the string ends with a separator
+            width = checkRow(cells - rowStart, width, height);
+            height++;
+        }
+        if (grid.length != cells)
+            grid = Arrays.copyOf(grid, cells);
+        return new MapLevel(width, height, grid);
     }
 
-    @Override
-    public String export(MapLevel mapLevel) {
-        return null;
+    // Every row has the width of the first one
+    private static int checkRow(int cells, int width, int row) {
+        if (cells == 0)
+            throw new MapException("Empty row " + row);
+        if (width >= 0 && cells != width)
+            throw new MapException("Row " + row + " has " + cells + " cells instead of " + width);
+        return cells;
     }
 }
@@ -11,25 +11,28 @@ public class MapLevelFileRLE implements MapRepo {
 
     @Override
     public MapLevel load(String string) {
-        StringBuilder gridString = new StringBuilder();
-
-        for(int i = 0; i < string.length(); i++) {
-            if(string.charAt(i) == 'x') {
-                gridString.append(string.charAt(i));
-            } else if (!Character.isDigit(string.charAt(i)) && Character.isDigit(string.charAt(i + 1))) {
-                int numberOfTheChar = Character.getNumericValue(string.charAt(i + 1));
-                for (int c = 0; c < numberOfTheChar; c++) {
-                    gridString.append(string.charAt(i));
-                }
-            } else if (!Character.isDigit(string.charAt(i))) {
-                gridString.append(string.charAt(i));
-            }
-        }
-        return MapLevelFile.getInstance().load(gridString.toString());
+        return MapLevelFile.decode(string, true);
     }
 
+    // A code is followed by its run length when repeated, runs do not cross rows
     @Override
     public String export(MapLevel mapLevel) {
-        return null;
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < mapLevel.height(); y++) {
+            if (y > 0)
+                sb.append(MapLevelFile.ROW_SEPARATOR);
+            int x = 0;
+            while (x < mapLevel.width()) {
+                Entity entity = mapLevel.get(x, y);
+                int run = 1;
+                while (x + run < mapLevel.width() && mapLevel.get(x + run, y) == entity)
+                    run++;
+                sb.append(entity.getCode());
+                if (run > 1)
+                    sb.append(run);
+                x += run;
+            }
+        }
+        return sb.toString();
     }
 }
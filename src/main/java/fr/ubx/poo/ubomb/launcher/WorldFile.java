@@ -0,0 +1,191 @@
+package fr.ubx.poo.ubomb.launcher;
+
+import fr.ubx.poo.ubomb.game.Configuration;
+import fr.ubx.poo.ubomb.game.OffscreenPolicy;
+import fr.ubx.poo.ubomb.game.Position;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Binary world format, read through a memory map so that opening a world only parses its header:
+ * the cells of a level are decoded when the game first builds it.
+ * <p>
+ * Layout, big endian: magic, version, the fields of the {@link Configuration} (the seed only kept if the world
+ * sets one), the number of levels, then for each level the offset of its cells in the file, its width and
+ * height, and last the cells of every level, row after row, as entity ordinals packed two per byte,
+ * low nibble first.
+ * <p>
+ * Usage: {@code WorldFile <world.properties> <world.ubw>} converts a properties world.
+ */
+public final class WorldFile {
+
+    private static final int MAGIC = 0x55425744; // "UBWD"
+    private static final int VERSION = 1;
+    private static final Entity[] entities = Entity.values();
+
+    static {
+        if (entities.length > 16)
+            throw new IllegalStateException("Entities no longer fit in 4 bits");
+    }
+
+    private final ByteBuffer buffer;
+    private final Configuration configuration; // Without seed
+    private final Long seed;
+    private final int levelCount;
+    private final int table; // Position of the level table
+
+    private WorldFile(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION)
+            throw new MapException("Not a world file");
+        buffer.position(5);
+        Position player = new Position(buffer.getInt(), buffer.getInt());
+        int bombBagCapacity = buffer.getInt();
+        int playerLives = buffer.getInt();
+        long playerInvincibilityTime = buffer.getLong();
+        int monsterVelocity = buffer.getInt();
+        long monsterInvincibilityTime = buffer.getLong();
+        int maxResidentLevels = buffer.getInt();
+        boolean monsterChase = buffer.get() != 0;
+        OffscreenPolicy offscreenPolicy = OffscreenPolicy.values()[buffer.get()];
+        boolean batchMonsterMoves = buffer.get() != 0;
+        boolean hasSeed = buffer.get() != 0;
+        long seed = buffer.getLong();
+        this.seed = hasSeed ? seed : null;
+        this.configuration = new Configuration(player, bombBagCapacity, playerLives, playerInvincibilityTime,
+                monsterVelocity, monsterInvincibilityTime, maxResidentLevels, monsterChase, offscreenPolicy,
+                batchMonsterMoves, 0);
+        this.levelCount = buffer.getInt();
+        this.table = buffer.position();
+    }
+
+    public static boolean isWorldFile(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return file.length() >= 4 && in.readInt() == MAGIC;
+        }
+    }
+
+    // Map the file, only the header is read
+    public static WorldFile open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new MapException(file + " is too large to be mapped");
+            // The mapping stays valid once the channel is closed
+            return new WorldFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @param seed The seed of the random streams, overriding that of the world, null to keep it.
+     */
+    public Configuration configuration(Long seed) {
+        if (seed == null)
+            seed = this.seed != null ? this.seed : Configuration.newSeed();
+        Configuration c = configuration;
+        return new Configuration(c.playerPosition(), c.bombBagCapacity(), c.playerLives(),
+                c.playerInvincibilityTime(), c.monsterVelocity(), c.monsterInvincibilityTime(),
+                c.maxResidentLevels(), c.monsterChase(), c.offscreenPolicy(), c.batchMonsterMoves(), seed);
+    }
+
+    // Each level is decoded from the mapped file when the supplier is called
+    public List<Supplier<MapLevel>> levels() {
+        List<Supplier<MapLevel>> levels = new ArrayList<>(levelCount);
+        for (int i = 0; i < levelCount; i++) {
+            int level = i;
+            levels.add(() -> level(level));
+        }
+        return levels;
+    }
+
+    public int levelCount() {
+        return levelCount;
+    }
+
+    public MapLevel level(int level) {
+        int entry = table + level * 16;
+        long offset = buffer.getLong(entry);
+        int width = buffer.getInt(entry + 8);
+        int height = buffer.getInt(entry + 12);
+        int cells = width * height;
+        byte[] packed = new byte[(cells + 1) / 2];
+        buffer.get((int) offset, packed); // A single copy out of the map
+        byte[] grid = new byte[cells];
+        for (int i = 0; i < cells; i++) {
+            int code = (packed[i >> 1] >> ((i & 1) << 2)) & 0xF;
+            if (code >= entities.length)
+                throw new MapException("Invalid entity " + code + " in level " + (level + 1));
+            grid[i] = (byte) code;
+        }
+        return new MapLevel(width, height, grid);
+    }
+
+    /**
+     * @param seed The seed kept in the world, null for a new game on each load.
+     */
+    public static void write(File file, Configuration configuration, Long seed, List<MapLevel> levels)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(configuration.playerPosition().x());
+            out.writeInt(configuration.playerPosition().y());
+            out.writeInt(configuration.bombBagCapacity());
+            out.writeInt(configuration.playerLives());
+            out.writeLong(configuration.playerInvincibilityTime());
+            out.writeInt(configuration.monsterVelocity());
+            out.writeLong(configuration.monsterInvincibilityTime());
+            out.writeInt(configuration.maxResidentLevels());
+            out.writeBoolean(configuration.monsterChase());
+            out.writeByte(configuration.offscreenPolicy().ordinal());
+            out.writeBoolean(configuration.batchMonsterMoves());
+            out.writeBoolean(seed != null);
+            out.writeLong(seed != null ? seed : 0);
+            out.writeInt(levels.size());
+            long offset = out.size() + 16L * levels.size();
+            for (MapLevel level : levels) {
+                out.writeLong(offset);
+                out.writeInt(level.width());
+                out.writeInt(level.height());
+                offset += ((long) level.width() * level.height() + 1) / 2;
+            }
+            for (MapLevel level : levels)
+                writeCells(out, level);
+        }
+    }
+
+    private static void writeCells(DataOutputStream out, MapLevel level) throws IOException {
+        int width = level.width();
+        int cells = width * level.height();
+        for (int i = 0; i < cells; i += 2) {
+            int packed = level.get(i % width, i / width).ordinal();
+            if (i + 1 < cells)
+                packed |= level.get((i + 1) % width, (i + 1) / width).ordinal() << 4;
+            out.writeByte(packed);
+        }
+    }
+
+    // Convert a properties world, every level is decoded once
+    public static void convert(File properties, File world) throws IOException {
+        Properties config = GameLauncher.properties(properties);
+        Long seed = config.getProperty("seed") != null ? Long.parseLong(config.getProperty("seed")) : null;
+        List<MapLevel> levels = new ArrayList<>();
+        for (Supplier<MapLevel> level : GameLauncher.levels(config))
+            levels.add(level.get());
+        write(world, GameLauncher.configuration(config, 0L), seed, levels);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: WorldFile <world.properties> <world.ubw>");
+            System.exit(2);
+        }
+        convert(new File(args[0]), new File(args[1]));
+    }
+}
@@ -0,0 +1,78 @@
+package fr.ubx.poo.ubomb.view;
+
+import fr.ubx.poo.ubomb.game.Position;
+import javafx.animation.TranslateTransition;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Bounded pool of explosion effects. Each effect is an image view and its transition, created once,
+ * kept in the layer and hidden when idle. When every effect is playing, new explosions are not animated.
+ */
+public class ExplosionPool {
+
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final Duration DURATION = Duration.millis(200);
+
+    private final Pane layer;
+    private final int capacity;
+    private final Deque<TranslateTransition> idle = new ArrayDeque<>();
+    private int created;
+    private long dropped;
+
+    public ExplosionPool(Pane layer) {
+        this(layer, DEFAULT_CAPACITY);
+    }
+
+    public ExplosionPool(Pane layer, int capacity) {
+        this.layer = layer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Animate an explosion going from src to dst.
+     *
+     * @return false if the pool is exhausted and the effect was dropped.
+     */
+    public boolean play(Position src, Position dst) {
+        TranslateTransition tt = acquire();
+        if (tt == null) {
+            dropped++;
+            return false;
+        }
+        tt.setFromX(src.x() * Sprite.size);
+        tt.setFromY(src.y() * Sprite.size);
+        tt.setToX(dst.x() * Sprite.size);
+        tt.setToY(dst.y() * Sprite.size);
+        tt.getNode().setVisible(true);
+        tt.playFromStart();
+        return true;
+    }
+
+    private TranslateTransition acquire() {
+        if (!idle.isEmpty())
+            return idle.pop();
+        if (created == capacity)
+            return null;
+        created++;
+        ImageView explosion = new ImageView(ImageResource.EXPLOSION.getImage());
+        explosion.setViewOrder(-2); // Above characters
+        explosion.setVisible(false);
+        layer.getChildren().add(explosion);
+        TranslateTransition tt = new TranslateTransition(DURATION, explosion);
+        tt.setOnFinished(e -> {
+            explosion.setVisible(false);
+            idle.push(tt);
+        });
+        return tt;
+    }
+
+    // Number of explosions not animated because the pool was exhausted
+    public long getDropped() {
+        return dropped;
+    }
+}
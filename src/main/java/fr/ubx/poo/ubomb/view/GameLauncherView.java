@@ -1,6 +1,8 @@
 package fr.ubx.poo.ubomb.view;
 
 import fr.ubx.poo.ubomb.engine.GameEngine;
+import fr.ubx.poo.ubomb.engine.InputRecording;
+import fr.ubx.poo.ubomb.engine.RenderMode;
 import fr.ubx.poo.ubomb.game.Configuration;
 import fr.ubx.poo.ubomb.game.Game;
 import fr.ubx.poo.ubomb.game.Level;
@@ -34,7 +36,12 @@ public class GameLauncherView extends BorderPane {
                 loadItem, defaultItem, new SeparatorMenuItem(),
                 exitItem);
 
-        menuBar.getMenus().addAll(menuFile);
+        Menu menuOptions = new Menu("Options");
+        CheckMenuItem canvasItem = new CheckMenuItem("Draw decors on a canvas (large worlds)");
+        canvasItem.setSelected(RenderMode.fromSystemProperty() == RenderMode.CANVAS);
+        menuOptions.getItems().add(canvasItem);
+
+        menuBar.getMenus().addAll(menuFile, menuOptions);
         this.setTop(menuBar);
 
         Text text = new Text("UBomb 2022");
@@ -49,8 +56,12 @@ public class GameLauncherView extends BorderPane {
         loadItem.setOnAction(e -> {
             File file = fileChooser.showOpenDialog(stage);
             if (file != null) {
+                // Inputs recorded to the file given with -Dubomb.record=<path>, for the Replay tool
+                String recordPath = System.getProperty("ubomb.record");
                 Game game = GameLauncher.load(file);
-                GameEngine engine = new GameEngine(game, stage);
+                GameEngine engine = new GameEngine(game, stage, renderMode(canvasItem));
+                if (recordPath != null)
+                    engine.record(InputRecording.start(file, game), recordPath);
                 engine.start();
             }
         });
@@ -58,7 +69,7 @@ public class GameLauncherView extends BorderPane {
 
         defaultItem.setOnAction(e -> {
             Game game = GameLauncher.load();
-            GameEngine engine = new GameEngine(game, stage);
+            GameEngine engine = new GameEngine(game, stage, renderMode(canvasItem));
             engine.start();
         });
 
@@ -67,5 +78,9 @@ public class GameLauncherView extends BorderPane {
 
     }
 
+    private static RenderMode renderMode(CheckMenuItem canvasItem) {
+        return canvasItem.isSelected() ? RenderMode.CANVAS : RenderMode.SPRITES;
+    }
+
 
 }
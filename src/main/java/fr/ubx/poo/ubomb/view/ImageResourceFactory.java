@@ -4,9 +4,15 @@ import fr.ubx.poo.ubomb.game.Direction;
 import javafx.scene.image.Image;
 
 public class ImageResourceFactory {
+    private static final ImageResource[] digits = {
+            ImageResource.DIGIT_0, ImageResource.DIGIT_1, ImageResource.DIGIT_2, ImageResource.DIGIT_3,
+            ImageResource.DIGIT_4, ImageResource.DIGIT_5, ImageResource.DIGIT_6, ImageResource.DIGIT_7,
+            ImageResource.DIGIT_8, ImageResource.DIGIT_9
+    };
+
     public static ImageResource digit(int i) {
         if (i < 0 || i > 9) throw new IllegalArgumentException("Digit must be in [0-9]");
-        return ImageResource.valueOf("DIGIT_" + i);
+        return digits[i];
     }
 
     public static ImageResource getPlayer(Direction direction) {
@@ -17,6 +17,7 @@ public class Sprite {
     private final GameObject gameObject;
     private ImageView imageView;
     private Image image;
+    boolean queued; // In the dirty sprites of the registry
 
     public Sprite(Pane layer, Image image, GameObject gameObject) {
         this.layer = layer;
@@ -37,26 +38,41 @@ public class Sprite {
     public void updateImage() {
     }
 
+    // Sprites redrawn on every frame even if the object did not change, like a blinking character
+    protected boolean animated() {
+        return false;
+    }
+
+    // Nodes are never re-added, so the drawing order is given by the view order (lower is drawn on top)
+    protected double viewOrder() {
+        return 0;
+    }
+
     public Position getPosition() {
         return getGameObject().getPosition();
     }
 
+    // The image view is created on the first render and then updated in place until the sprite is removed
     public final void render() {
-        if (gameObject.isModified()) {
-            if (imageView != null) {
-                remove();
-            }
+        if (gameObject.isModified() || animated()) {
             updateImage();
-            imageView = new ImageView(this.image);
-            imageView.setX(getPosition().x() * size);
-            imageView.setY(getPosition().y() * size);
-            layer.getChildren().add(imageView);
+            if (imageView == null) {
+                imageView = new ImageView();
+                imageView.setViewOrder(viewOrder());
+                layer.getChildren().add(imageView);
+            }
+            if (imageView.getImage() != this.image)
+                imageView.setImage(this.image);
+            // Translation does not change the layout bounds, so moving never triggers a layout pass
+            imageView.setTranslateX(getPosition().x() * size);
+            imageView.setTranslateY(getPosition().y() * size);
             gameObject.setModified(false);
         }
     }
 
     public final void remove() {
-        layer.getChildren().remove(imageView);
+        if (imageView != null)
+            layer.getChildren().remove(imageView);
         imageView = null;
     }
 }
@@ -12,6 +12,6 @@ public class SpriteBomb extends Sprite {
 
     @Override
     public void updateImage() {
-        setImage(ImageResourceFactory.getBomb(((int)((Bomb)getGameObject()).getTimer().remaining())/1000).getImage());
+        setImage(ImageResourceFactory.getBomb(((Bomb) getGameObject()).getCountdown()).getImage());
     }
 }
@@ -18,13 +18,26 @@ public abstract class SpriteCharacter extends Sprite {
         image = null;
     }
 
+    // Characters are drawn above decors and bombs
+    @Override
+    protected double viewOrder() {
+        return -1;
+    }
+
+    // Blinking while invincible, the end of the invincibility is a timer of the character that marks it modified
+    @Override
+    protected boolean animated() {
+        return ((Character) getGameObject()).isInvincible();
+    }
+
     @Override
     public void updateImage() {
         Character character = (Character) getGameObject();
-        if (character.getInvicibilityTimer() != null && blipSequence == 0) {
+        boolean blinking = character.isInvincible();
+        if (blinking && blipSequence == 0) {
             image = null;
             blipSequence = FRAME_TO_SKIP;
-        } else if (character.getInvicibilityTimer() != null) {
+        } else if (blinking) {
             blipSequence -= 1;
         } else {
             blipSequence = FRAME_TO_SKIP;
@@ -9,6 +9,7 @@ import fr.ubx.poo.ubomb.go.character.Monster;
 import fr.ubx.poo.ubomb.go.decor.bonus.*;
 import fr.ubx.poo.ubomb.go.decor.*;
 import fr.ubx.poo.ubomb.go.decor.door.Door;
+import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 
 import static fr.ubx.poo.ubomb.view.ImageResource.*;
@@ -17,32 +18,39 @@ import static fr.ubx.poo.ubomb.view.ImageResource.*;
 public final class SpriteFactory {
 
     public static Sprite create(Pane layer, GameObject gameObject) {
+        if(gameObject instanceof Door)
+            return new SpriteDoor(layer, (Door)gameObject);
+        if(gameObject instanceof Bomb)
+            return new SpriteBomb(layer, (Bomb)gameObject);
+        if(gameObject instanceof Monster)
+            return new SpriteMonster(layer, (Monster) gameObject);
+        return new Sprite(layer, image(gameObject), gameObject);
+    }
+
+    // Image of a static decor, as drawn by a plain sprite or by the tile canvas
+    public static Image image(GameObject gameObject) {
         if (gameObject instanceof Stone)
-            return new Sprite(layer, STONE.getImage(), gameObject);
+            return STONE.getImage();
         if (gameObject instanceof Tree)
-            return new Sprite(layer, TREE.getImage(), gameObject);
+            return TREE.getImage();
         if (gameObject instanceof Key)
-            return new Sprite(layer, KEY.getImage(), gameObject);
+            return KEY.getImage();
         if (gameObject instanceof Hearth)
-            return new Sprite(layer, HEART.getImage(), gameObject);
+            return HEART.getImage();
         if(gameObject instanceof Box)
-            return new Sprite(layer, BOX.getImage(), gameObject);
+            return BOX.getImage();
         if(gameObject instanceof Princess)
-            return new Sprite(layer, PRINCESS.getImage(), gameObject);
+            return PRINCESS.getImage();
         if(gameObject instanceof BombRangeModifier && ((BombRangeModifier) gameObject).getRangeModifier() == -1)
-            return new Sprite(layer, BONUS_BOMB_RANGE_DEC.getImage(), gameObject);
+            return BONUS_BOMB_RANGE_DEC.getImage();
         if(gameObject instanceof BombRangeModifier && ((BombRangeModifier) gameObject).getRangeModifier() == 1)
-            return new Sprite(layer, BONUS_BOMB_RANGE_INC.getImage(), gameObject);
+            return BONUS_BOMB_RANGE_INC.getImage();
         if(gameObject instanceof BombNumberModifier && ((BombNumberModifier) gameObject).getModifier() == 1)
-            return new Sprite(layer, BONUS_BOMB_NB_INC.getImage(), gameObject);
+            return BONUS_BOMB_NB_INC.getImage();
         if(gameObject instanceof BombNumberModifier && ((BombNumberModifier) gameObject).getModifier() == -1)
-            return new Sprite(layer, BONUS_BOMB_NB_DEC.getImage(), gameObject);
+            return BONUS_BOMB_NB_DEC.getImage();
         if(gameObject instanceof Door)
-            return new SpriteDoor(layer, (Door)gameObject);
-        if(gameObject instanceof Bomb)
-            return new SpriteBomb(layer, (Bomb)gameObject);
-        if(gameObject instanceof Monster)
-            return new SpriteMonster(layer, (Monster) gameObject);
+            return ((Door) gameObject).isLocked() ? DOOR_CLOSED.getImage() : DOOR_OPENED.getImage();
         throw new RuntimeException("Unsupported sprite for decor " + gameObject);
     }
 }
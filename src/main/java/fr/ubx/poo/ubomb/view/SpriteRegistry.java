@@ -0,0 +1,100 @@
+package fr.ubx.poo.ubomb.view;
+
+import fr.ubx.poo.ubomb.go.GameObject;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Sprites of the displayed game objects, indexed by object identity.
+ * A removed game object notifies the registry, which retires its sprite in constant time,
+ * so a frame without deletion does no cleanup work. Likewise a modified game object queues its sprite,
+ * and only the queued sprites and the animated ones are rendered, so an idle frame draws nothing.
+ */
+public class SpriteRegistry {
+
+    private final Map<GameObject, Sprite> sprites = new IdentityHashMap<>();
+    private final List<Sprite> retired = new ArrayList<>();
+    private final Consumer<GameObject> onRemove = this::retire;
+    private final Consumer<GameObject> onModify = this::queue;
+    private List<Sprite> dirty = new ArrayList<>();
+    private List<Sprite> rendering = new ArrayList<>();
+
+    public void add(Sprite sprite) {
+        GameObject gameObject = sprite.getGameObject();
+        Sprite previous = sprites.put(gameObject, sprite);
+        if (previous != null)
+            retired.add(previous);
+        gameObject.setRemovalListener(onRemove);
+        gameObject.setModificationListener(onModify);
+        if (gameObject.isDeleted())
+            retire(gameObject);
+        else if (gameObject.isModified())
+            queue(sprite);
+    }
+
+    private void queue(GameObject gameObject) {
+        Sprite sprite = sprites.get(gameObject);
+        if (sprite != null)
+            queue(sprite);
+    }
+
+    private void queue(Sprite sprite) {
+        if (!sprite.queued) {
+            sprite.queued = true;
+            dirty.add(sprite);
+        }
+    }
+
+    private void retire(GameObject gameObject) {
+        Sprite sprite = sprites.remove(gameObject);
+        if (sprite != null) {
+            gameObject.setRemovalListener(null);
+            gameObject.setModificationListener(null);
+            retired.add(sprite);
+        }
+    }
+
+    // Remove the nodes of the sprites retired since the previous call
+    public void cleanup() {
+        if (retired.isEmpty())
+            return;
+        retired.forEach(Sprite::remove);
+        retired.clear();
+    }
+
+    // Render the sprites queued since the previous frame, the animated ones stay queued for the next
+    public void render() {
+        List<Sprite> batch = dirty;
+        dirty = rendering;
+        rendering = batch;
+        for (Sprite sprite : batch) {
+            sprite.queued = false;
+            if (sprites.get(sprite.getGameObject()) != sprite)
+                continue; // Retired meanwhile
+            sprite.render();
+            if (sprite.animated())
+                queue(sprite);
+        }
+        batch.clear();
+    }
+
+    public void clear() {
+        for (Sprite sprite : sprites.values()) {
+            sprite.getGameObject().setRemovalListener(null);
+            sprite.getGameObject().setModificationListener(null);
+            sprite.remove();
+        }
+        sprites.clear();
+        dirty.forEach(sprite -> sprite.queued = false);
+        dirty.clear();
+        cleanup();
+    }
+
+    public int size() {
+        return sprites.size();
+    }
+}
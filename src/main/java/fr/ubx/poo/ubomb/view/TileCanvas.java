@@ -0,0 +1,130 @@
+package fr.ubx.poo.ubomb.view;
+
+import fr.ubx.poo.ubomb.game.Grid;
+import fr.ubx.poo.ubomb.game.GridListener;
+import fr.ubx.poo.ubomb.game.Position;
+import fr.ubx.poo.ubomb.go.decor.Bomb;
+import fr.ubx.poo.ubomb.go.decor.Decor;
+import javafx.geometry.Point2D;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+
+import java.util.BitSet;
+
+/**
+ * Draws the static decors of a grid on canvases instead of one sprite per decor.
+ * The grid is split in tiles of {@value #TILE_CELLS}x{@value #TILE_CELLS} cells, each with its own small canvas,
+ * so that no canvas goes over the texture size of the graphic card. Only the tiles in the visible part of the
+ * layer have a canvas: a tile is painted in full when it comes into view, then only the cells reported as
+ * changed by the grid are repainted, and its canvas is dropped when it leaves the view.
+ * Bombs are left to the overlay sprites, like characters and explosions.
+ */
+public class TileCanvas implements GridListener {
+
+    public static final int TILE_CELLS = 32;
+
+    private final Pane layer;
+    private final Grid grid;
+    private final int tilesX;
+    private final int tilesY;
+    private final Canvas[] canvases; // null while the tile is out of view
+    private final BitSet[] dirty;    // Cells of the tile to repaint, indexed by y * TILE_CELLS + x
+    // Tiles in view at the last render, empty at first
+    private int viewMinX, viewMinY;
+    private int viewMaxX = -1, viewMaxY = -1;
+
+    public TileCanvas(Pane layer, Grid grid) {
+        this.layer = layer;
+        this.grid = grid;
+        this.tilesX = (grid.width() + TILE_CELLS - 1) / TILE_CELLS;
+        this.tilesY = (grid.height() + TILE_CELLS - 1) / TILE_CELLS;
+        this.canvases = new Canvas[tilesX * tilesY];
+        this.dirty = new BitSet[tilesX * tilesY];
+        grid.addListener(this);
+    }
+
+    // Changes out of view are dropped, the tile is painted again when it comes into view
+    @Override
+    public void cellChanged(Position position) {
+        int tile = (position.y() / TILE_CELLS) * tilesX + position.x() / TILE_CELLS;
+        if (canvases[tile] != null)
+            dirty[tile].set((position.y() % TILE_CELLS) * TILE_CELLS + position.x() % TILE_CELLS);
+    }
+
+    public void render() {
+        Scene scene = layer.getScene();
+        if (scene == null)
+            return;
+        // Visible part of the layer, in tiles
+        Point2D from = layer.sceneToLocal(0, 0);
+        Point2D to = layer.sceneToLocal(scene.getWidth(), scene.getHeight());
+        int minX = Math.max(0, tile(from.getX()));
+        int minY = Math.max(0, tile(from.getY()));
+        int maxX = Math.min(tilesX - 1, tile(to.getX()));
+        int maxY = Math.min(tilesY - 1, tile(to.getY()));
+        // Tiles of the previous frame that left the view
+        for (int ty = viewMinY; ty <= viewMaxY; ty++)
+            for (int tx = viewMinX; tx <= viewMaxX; tx++)
+                if (tx < minX || tx > maxX || ty < minY || ty > maxY)
+                    drop(ty * tilesX + tx);
+        for (int ty = minY; ty <= maxY; ty++)
+            for (int tx = minX; tx <= maxX; tx++) {
+                int tile = ty * tilesX + tx;
+                if (canvases[tile] == null)
+                    create(tile, tx, ty);
+                paint(tile, tx, ty);
+            }
+        viewMinX = minX;
+        viewMinY = minY;
+        viewMaxX = maxX;
+        viewMaxY = maxY;
+    }
+
+    private static int tile(double pixels) {
+        return Math.floorDiv((int) Math.floor(pixels / Sprite.size), TILE_CELLS);
+    }
+
+    private void create(int tile, int tx, int ty) {
+        int width = Math.min(TILE_CELLS, grid.width() - tx * TILE_CELLS);
+        int height = Math.min(TILE_CELLS, grid.height() - ty * TILE_CELLS);
+        Canvas canvas = new Canvas(width * Sprite.size, height * Sprite.size);
+        canvas.relocate(tx * TILE_CELLS * Sprite.size, ty * TILE_CELLS * Sprite.size);
+        canvas.setViewOrder(1); // Below every sprite
+        layer.getChildren().add(canvas);
+        canvases[tile] = canvas;
+        dirty[tile] = new BitSet(TILE_CELLS * TILE_CELLS);
+        for (int y = 0; y < height; y++)
+            dirty[tile].set(y * TILE_CELLS, y * TILE_CELLS + width);
+    }
+
+    private void paint(int tile, int tx, int ty) {
+        GraphicsContext gc = canvases[tile].getGraphicsContext2D();
+        BitSet cells = dirty[tile];
+        for (int i = cells.nextSetBit(0); i >= 0; i = cells.nextSetBit(i + 1)) {
+            int x = i % TILE_CELLS;
+            int y = i / TILE_CELLS;
+            gc.clearRect(x * Sprite.size, y * Sprite.size, Sprite.size, Sprite.size);
+            Decor decor = grid.get(tx * TILE_CELLS + x, ty * TILE_CELLS + y);
+            if (decor != null && !(decor instanceof Bomb))
+                gc.drawImage(SpriteFactory.image(decor), x * Sprite.size, y * Sprite.size);
+        }
+        cells.clear();
+    }
+
+    private void drop(int tile) {
+        if (canvases[tile] == null)
+            return;
+        layer.getChildren().remove(canvases[tile]);
+        canvases[tile] = null;
+        dirty[tile] = null;
+    }
+
+    public void remove() {
+        grid.removeListener(this);
+        for (int ty = viewMinY; ty <= viewMaxY; ty++)
+            for (int tx = viewMinX; tx <= viewMaxX; tx++)
+                drop(ty * tilesX + tx);
+    }
+}